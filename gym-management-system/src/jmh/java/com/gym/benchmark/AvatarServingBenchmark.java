@@ -0,0 +1,136 @@
+package com.gym.benchmark;
+
+import com.gym.controller.AvatarController;
+import com.gym.service.impl.AvatarStorageServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 头像访问基准测试
+ * 对比原来的 ResourceHttpRequestHandler（固定缓存一小时、按修改时间验证）和 AvatarController
+ * 完整下载以及浏览器重新验证（304）两种请求的吞吐量。
+ * 使用 Mock 请求和响应，测量的是处理器本身的开销，sendfile 的收益需在 Tomcat 下观察
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AvatarServingBenchmark {
+
+    private static final int AVATAR_BYTES = 32 * 1024;
+
+    private Path root;
+
+    private String fileName;
+
+    private AvatarStorageServiceImpl storageService;
+
+    private AvatarController controller;
+
+    private ResourceHttpRequestHandler legacyHandler;
+
+    private String legacyLastModified;
+
+    private String etag;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("avatar-benchmark");
+        byte[] content = new byte[AVATAR_BYTES];
+        new Random(42).nextBytes(content);
+        fileName = String.format("%064x", 42) + ".png";
+        Files.write(root.resolve(fileName), content);
+
+        storageService = new AvatarStorageServiceImpl(root.toString(), 256, 64, 1);
+        controller = new AvatarController(storageService);
+
+        legacyHandler = new ResourceHttpRequestHandler();
+        legacyHandler.setLocations(Collections.singletonList(new FileSystemResource(root.toString() + "/")));
+        legacyHandler.setCacheSeconds(3600);
+        legacyHandler.setServletContext(new MockServletContext());
+        legacyHandler.afterPropertiesSet();
+
+        MockHttpServletResponse legacy = legacyGet(null);
+        legacyLastModified = legacy.getHeader(HttpHeaders.LAST_MODIFIED);
+        MockHttpServletResponse current = avatarGet(null);
+        etag = current.getHeader(HttpHeaders.ETAG);
+        if (legacy.getContentAsByteArray().length != AVATAR_BYTES || current.getContentAsByteArray().length != AVATAR_BYTES) {
+            throw new IllegalStateException("头像响应内容长度不正确");
+        }
+        if (avatarGet(etag).getStatus() != 304) {
+            throw new IllegalStateException("If-None-Match 未返回304");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        storageService.shutdown();
+        Files.deleteIfExists(root.resolve(fileName));
+        Files.deleteIfExists(root);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse legacyFullGet() throws Exception {
+        return legacyGet(null);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse legacyRevalidate() throws Exception {
+        return legacyGet(legacyLastModified);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse controllerFullGet() throws Exception {
+        return avatarGet(null);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse controllerRevalidate() throws Exception {
+        return avatarGet(etag);
+    }
+
+    private MockHttpServletResponse legacyGet(String ifModifiedSince) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/avatar/" + fileName);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, fileName);
+        if (ifModifiedSince != null) {
+            request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        legacyHandler.handleRequest(request, response);
+        return response;
+    }
+
+    private MockHttpServletResponse avatarGet(String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/avatar/" + fileName);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(request, response);
+        return response;
+    }
+}
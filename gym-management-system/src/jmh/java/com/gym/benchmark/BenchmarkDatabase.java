@@ -0,0 +1,215 @@
+package com.gym.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 基准测试用的H2内存数据库（MySQL兼容模式）
+ * 用 gym_management_system_tables.sql 建表后批量生成测试数据
+ */
+public final class BenchmarkDatabase {
+
+    public static final String URL = "jdbc:h2:mem:gym_benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    public static final String USERNAME = "sa";
+
+    public static final String PASSWORD = "";
+
+    /**
+     * 建表脚本路径，默认为仓库根目录下的 gym_management_system_tables.sql
+     */
+    private static final String SCHEMA_PATH = System.getProperty("gym.benchmark.schema", "../gym_management_system_tables.sql");
+    public static final int MEMBER_COUNT = Integer.getInteger("gym.benchmark.members", 5000);
+
+    public static final int COURSE_COUNT = Integer.getInteger("gym.benchmark.courses", 300);
+
+    public static final int BOOKINGS_PER_MEMBER = Integer.getInteger("gym.benchmark.bookings-per-member", 10);
+
+    /**
+     * 历史课程数量，全部由一个会员预约，用于测试预约记录很多的会员
+     */
+    public static final int HISTORY_COURSE_COUNT = Integer.getInteger("gym.benchmark.history-courses", 1000);
+
+    /**
+     * 建表脚本中的 INSERT 生成的用户数量（1个管理员 + 3个教练）
+     */
+    private static final int SCRIPT_USER_COUNT = 4;
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE `(\\w+)`");
+
+    private static final Pattern INDEX_NAME = Pattern.compile("INDEX `(\\w+)`");
+
+    private static final Pattern TABLE_OPTIONS = Pattern.compile("\\)\\s*ENGINE=.*$", Pattern.DOTALL);
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * 第一个会员的用户ID
+     */
+    public static long firstMemberId() {
+        return SCRIPT_USER_COUNT + 1;
+    }
+
+    /**
+     * 预约了全部历史课程的会员的用户ID
+     */
+    public static long heavyMemberId() {
+        return firstMemberId() + MEMBER_COUNT;
+    }
+
+    /**
+     * 建表并生成数据
+     */
+    public static void create() throws IOException, SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                for (String sql : readScript(Paths.get(SCHEMA_PATH))) {
+                    statement.execute(sql);
+                }
+                // 迁移脚本在Spring容器启动时由 SchemaMigrationRunner 执行
+            }
+            connection.setAutoCommit(false);
+            seed(connection);
+            connection.commit();
+        }
+    }
+
+    /**
+     * 读取SQL脚本并转换为H2可以执行的语句
+     * 去掉建库语句和表选项，H2中索引名全库唯一，因此建表语句中的索引加上表名前缀
+     */
+    private static String[] readScript(Path path) throws IOException {
+        String script = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        StringBuilder cleaned = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                cleaned.append(line).append('\n');
+            }
+        }
+        String[] statements = cleaned.toString().split(";");
+        List<String> result = new ArrayList<>();
+        for (String sql : statements) {
+            String trimmed = sql.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("CREATE DATABASE") || trimmed.startsWith("USE ")) {
+                continue;
+            }
+            Matcher table = CREATE_TABLE.matcher(trimmed);
+            if (table.find()) {
+                trimmed = INDEX_NAME.matcher(trimmed).replaceAll("INDEX `" + table.group(1) + "_$1`");
+                trimmed = TABLE_OPTIONS.matcher(trimmed).replaceAll(")");
+            }
+            result.add(trimmed);
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * 生成会员、会员信息、课程和预约数据
+     * 课程全部安排在未来，每个会员预约连续的若干门课程
+     */
+    private static void seed(Connection connection) throws SQLException {
+        try (PreparedStatement user = connection.prepareStatement(
+                "INSERT INTO `user` (`phone`, `password`, `role`, `status`) VALUES (?, ?, 'member', ?)");
+             PreparedStatement info = connection.prepareStatement(
+                "INSERT INTO `member_info` (`user_id`, `name`, `gender`, `phone`) VALUES (?, ?, ?, ?)")) {
+            // 最后一个会员为预约了全部历史课程的会员
+            for (int i = 0; i <= MEMBER_COUNT; i++) {
+                long userId = firstMemberId() + i;
+                String phone = String.format("137%08d", i);
+                user.setString(1, phone);
+                user.setString(2, "benchmark");
+                user.setString(3, i % 20 == 0 ? "disabled" : "active");
+                user.addBatch();
+                info.setLong(1, userId);
+                info.setString(2, "会员" + i);
+                info.setString(3, i % 2 == 0 ? "男" : "女");
+                info.setString(4, phone);
+                info.addBatch();
+            }
+            user.executeBatch();
+            info.executeBatch();
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        try (PreparedStatement course = connection.prepareStatement(
+                "INSERT INTO `course` (`name`, `schedule_time`, `trainer_id`, `max_capacity`, `current_count`) VALUES (?, ?, ?, ?, 0)")) {
+            for (int i = 0; i < COURSE_COUNT; i++) {
+                course.setString(1, "课程" + i);
+                course.setTimestamp(2, Timestamp.valueOf(start.plusHours(i)));
+                course.setLong(3, 2 + i % 3);
+                course.setInt(4, MEMBER_COUNT);
+                course.addBatch();
+            }
+            for (int i = 0; i < HISTORY_COURSE_COUNT; i++) {
+                course.setString(1, "历史课程" + i);
+                course.setTimestamp(2, Timestamp.valueOf(start.minusDays(2).minusHours(i)));
+                course.setLong(3, 2 + i % 3);
+                course.setInt(4, MEMBER_COUNT);
+                course.addBatch();
+            }
+            course.executeBatch();
+        }
+        // 建表脚本中已有3门课程
+        long firstCourseId = 4;
+        long firstHistoryCourseId = firstCourseId + COURSE_COUNT;
+
+        try (PreparedStatement booking = connection.prepareStatement(
+                "INSERT INTO `booking` (`user_id`, `course_id`, `booking_time`) VALUES (?, ?, ?)")) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                for (int j = 0; j < BOOKINGS_PER_MEMBER; j++) {
+                    booking.setLong(1, firstMemberId() + i);
+                    booking.setLong(2, firstCourseId + (i + j) % COURSE_COUNT);
+                    booking.setTimestamp(3, now);
+                    booking.addBatch();
+                }
+                if (i % 500 == 499) {
+                    booking.executeBatch();
+                }
+            }
+            for (int i = 0; i < HISTORY_COURSE_COUNT + BOOKINGS_PER_MEMBER; i++) {
+                booking.setLong(1, heavyMemberId());
+                booking.setLong(2, i < HISTORY_COURSE_COUNT ? firstHistoryCourseId + i : firstCourseId + i - HISTORY_COURSE_COUNT);
+                booking.setTimestamp(3, now);
+                booking.addBatch();
+            }
+            booking.executeBatch();
+        }
+        try (PreparedStatement card = connection.prepareStatement(
+                "INSERT INTO `membership_card` (`user_id`, `card_number`, `card_type`, `start_date`, `end_date`) "
+                        + "VALUES (?, ?, ?, CURRENT_DATE, DATEADD('YEAR', 1, CURRENT_DATE))")) {
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                card.setLong(1, firstMemberId() + i);
+                card.setString(2, "C" + i);
+                card.setString(3, i % 3 == 0 ? "年卡" : "月卡");
+                card.addBatch();
+            }
+            card.setLong(1, heavyMemberId());
+            card.setString(2, "C" + MEMBER_COUNT);
+            card.setString(3, "年卡");
+            card.addBatch();
+            card.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE `course` c SET `current_count` = "
+                    + "(SELECT COUNT(*) FROM `booking` b WHERE b.`course_id` = c.`id`)");
+        }
+    }
+}
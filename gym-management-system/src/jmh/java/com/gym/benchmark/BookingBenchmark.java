@@ -0,0 +1,78 @@
+package com.gym.benchmark;
+
+import com.gym.dto.BookingDTO;
+import com.gym.entity.Booking;
+import com.gym.mapper.BookingMapper;
+import com.gym.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预约相关基准测试
+ * bookAndCancel：预约后立即取消，测量 bookCourse + cancelBooking 的完整往返；
+ * getMyBookings：查询会员的预约记录并转换为DTO；
+ * getCourseMembers：查询课程的预约会员。
+ * 加上 -prof gc 可以查看每次调用分配的字节数（gc.alloc.rate.norm）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private BookingService bookingService;
+
+    private BookingMapper bookingMapper;
+
+    @Setup(Level.Trial)
+    public void setUp(GymContextState state) {
+        bookingService = state.getBean(BookingService.class);
+        bookingMapper = state.getBean(BookingMapper.class);
+    }
+
+    @Benchmark
+    public Long bookAndCancel() {
+        long userId = randomMemberId();
+        // 会员已预约连续的若干门课程，选择一门未预约的课程
+        long courseId = 4 + (userId - BenchmarkDatabase.firstMemberId() + BenchmarkDatabase.BOOKINGS_PER_MEMBER)
+                % BenchmarkDatabase.COURSE_COUNT;
+        bookingService.bookCourse(userId, courseId);
+        Long bookingId = null;
+        for (Booking booking : bookingMapper.selectByUserId(userId)) {
+            if (booking.getCourseId() == courseId) {
+                bookingId = booking.getId();
+            }
+        }
+        bookingService.cancelBooking(bookingId);
+        return bookingId;
+    }
+
+    @Benchmark
+    public List<BookingDTO> getMyBookings() {
+        return bookingService.getMyBookings(randomMemberId());
+    }
+
+    @Benchmark
+    public List<?> getCourseMembers() {
+        return bookingService.getCourseMembers(4L + ThreadLocalRandom.current().nextInt(BenchmarkDatabase.COURSE_COUNT));
+    }
+
+    private long randomMemberId() {
+        return BenchmarkDatabase.firstMemberId() + ThreadLocalRandom.current().nextInt(BenchmarkDatabase.MEMBER_COUNT);
+    }
+}
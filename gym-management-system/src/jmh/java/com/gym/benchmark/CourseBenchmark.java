@@ -0,0 +1,42 @@
+package com.gym.benchmark;
+
+import com.gym.entity.Course;
+import com.gym.service.CourseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 课程列表基准测试
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseBenchmark {
+
+    private CourseService courseService;
+
+    @Setup(Level.Trial)
+    public void setUp(GymContextState state) {
+        courseService = state.getBean(CourseService.class);
+    }
+
+    @Benchmark
+    public List<Course> getAvailableCourses() {
+        return courseService.getAvailableCourses();
+    }
+}
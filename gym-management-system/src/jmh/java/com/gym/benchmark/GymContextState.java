@@ -0,0 +1,51 @@
+package com.gym.benchmark;
+
+import com.gym.GymManagementApplication;
+import com.gym.service.CoachStatsService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 基准测试共享的Spring容器
+ * 每轮测试启动一次，连接H2内存数据库，不启动Web服务器
+ */
+@State(Scope.Benchmark)
+public class GymContextState {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        BenchmarkDatabase.create();
+        context = new SpringApplicationBuilder(GymManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.datasource.url=" + BenchmarkDatabase.URL,
+                        "--spring.datasource.username=" + BenchmarkDatabase.USERNAME,
+                        "--spring.datasource.password=" + BenchmarkDatabase.PASSWORD,
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.gym=WARN",
+                        // 慢SQL日志不影响测试结果，耗时可通过 gym.sql.statement 指标查看
+                        "--logging.level.com.gym.slow-query=OFF");
+        // 测试数据直接写入预约表，启动后按预约表重建教练统计
+        context.getBean(CoachStatsService.class).rebuildAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
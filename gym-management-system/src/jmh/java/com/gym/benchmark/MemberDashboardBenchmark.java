@@ -0,0 +1,71 @@
+package com.gym.benchmark;
+
+import com.gym.dto.BookingDTO;
+import com.gym.dto.MemberDashboard;
+import com.gym.service.BookingService;
+import com.gym.service.MembershipCardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会员首页统计基准测试
+ * 使用预约了全部历史课程的会员（默认1000条预约记录）；
+ * loadAllBookings 为原首页的做法：加载全部会员卡和全部预约后在内存中统计
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberDashboardBenchmark {
+
+    private BookingService bookingService;
+
+    private MembershipCardService membershipCardService;
+
+    @Setup(Level.Trial)
+    public void setUp(GymContextState state) {
+        bookingService = state.getBean(BookingService.class);
+        membershipCardService = state.getBean(MembershipCardService.class);
+    }
+
+    @Benchmark
+    public MemberDashboard dashboard() {
+        return bookingService.getMemberDashboard(BenchmarkDatabase.heavyMemberId());
+    }
+
+    @Benchmark
+    public void loadAllBookings(Blackhole blackhole) {
+        blackhole.consume(membershipCardService.findAllCards().size());
+        List<BookingDTO> bookings = bookingService.getMyBookings(BenchmarkDatabase.heavyMemberId());
+        int completed = 0;
+        int upcoming = 0;
+        for (BookingDTO booking : bookings) {
+            if (booking.getScheduleTime().isBefore(LocalDateTime.now())) {
+                completed++;
+            }
+            if (booking.getScheduleTime().isAfter(LocalDateTime.now())) {
+                upcoming++;
+            }
+        }
+        blackhole.consume(completed);
+        blackhole.consume(upcoming);
+        bookings.stream().filter(booking -> booking.getScheduleTime().isAfter(LocalDateTime.now())).limit(5)
+                .forEach(blackhole::consume);
+    }
+}
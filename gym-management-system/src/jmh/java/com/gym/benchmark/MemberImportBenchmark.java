@@ -0,0 +1,82 @@
+package com.gym.benchmark;
+
+import com.gym.cache.CredentialCache;
+import com.gym.dto.MemberImportResult;
+import com.gym.mapper.UserMapper;
+import com.gym.service.DashboardStatsService;
+import com.gym.service.impl.MemberImportServiceImpl;
+import com.gym.service.impl.PasswordHashingServiceImpl;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会员批量导入基准测试
+ * 每次导入一批新会员，按每批插入行数分别统计耗时，chunkSize=1 接近逐个新增会员。
+ * 使用最低的BCrypt强度，使结果主要反映校验和写入的开销，哈希开销见 PasswordHashingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class MemberImportBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"1", "100", "500"})
+    private int chunkSize;
+
+    private PasswordHashingServiceImpl hashingService;
+
+    private MemberImportServiceImpl importService;
+
+    private long nextPhone = 15900000000L;
+
+    @Setup(Level.Trial)
+    public void setUp(GymContextState state) {
+        hashingService = new PasswordHashingServiceImpl(4, 0, 200);
+        importService = new MemberImportServiceImpl(state.getBean(SqlSessionFactory.class),
+                state.getBean(PlatformTransactionManager.class), state.getBean(UserMapper.class), hashingService,
+                state.getBean(DashboardStatsService.class), state.getBean(CredentialCache.class), chunkSize, 32);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hashingService.shutdown();
+    }
+
+    @Benchmark
+    public MemberImportResult importMembers() throws IOException {
+        StringBuilder csv = new StringBuilder("手机号,姓名,性别,出生日期,电子邮箱\r\n");
+        for (int i = 0; i < ROWS; i++) {
+            long phone = nextPhone++;
+            csv.append(phone).append(",导入会员").append(phone % 100000).append(",女,1995-06-01,m")
+                    .append(phone).append("@example.com\r\n");
+        }
+        MemberImportResult result = importService.importMembers(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        if (result.getImportedRows() != ROWS) {
+            throw new IllegalStateException("导入失败: " + result.getErrors());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package com.gym.benchmark;
+
+import com.gym.entity.User;
+import com.gym.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会员搜索基准测试
+ * 分别测量不带条件、按手机号和按姓名搜索会员
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberSearchBenchmark {
+
+    @Param({"all", "phone", "name"})
+    private String filter;
+
+    private UserService userService;
+
+    private Map<String, Object> params;
+
+    @Setup(Level.Trial)
+    public void setUp(GymContextState state) {
+        userService = state.getBean(UserService.class);
+        params = new HashMap<>();
+        if ("phone".equals(filter)) {
+            params.put("phone", "1370000");
+        } else if ("name".equals(filter)) {
+            params.put("name", "会员12");
+        }
+    }
+
+    @Benchmark
+    public List<User> searchMembers() {
+        return userService.searchMembers(params);
+    }
+}
@@ -0,0 +1,60 @@
+package com.gym.benchmark;
+
+import com.gym.service.impl.PasswordHashingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密码哈希基准测试
+ * 按BCrypt强度分别统计每秒可完成的加密和验证次数，用于选择 gym.password.bcrypt-strength
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "123456";
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private PasswordHashingServiceImpl hashingService;
+
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        hashingService = new PasswordHashingServiceImpl(strength, 0, 1000);
+        encoded = hashingService.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hashingService.shutdown();
+    }
+
+    @Benchmark
+    public String encode() {
+        return hashingService.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return hashingService.matches(PASSWORD, encoded);
+    }
+}
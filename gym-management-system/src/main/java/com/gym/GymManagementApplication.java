@@ -3,12 +3,14 @@ package com.gym;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 健身房管理系统应用入口类
  */
 @SpringBootApplication
 @MapperScan("com.gym.mapper") // ← 添加这一行！
+@EnableScheduling
 public class GymManagementApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,98 @@
+package com.gym.cache;
+
+import com.gym.entity.Course;
+import com.gym.mapper.CourseMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 可预约课程目录
+ * 在内存中保存今天及以后课程的快照（教练姓名取自coach_info），
+ * 课程新建、修改时以及定时任务中重新加载；报名人数以名额库存为准，
+ * 因此会员查看课程列表时不需要查询数据库。
+ */
+@Component
+public class CourseCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseCatalog.class);
+
+    private final CourseMapper courseMapper;
+
+    private final SeatInventory seatInventory;
+
+    /**
+     * 课程快照，按上课时间升序，整体替换，不在原列表上修改
+     */
+    private volatile List<Course> snapshot;
+
+    public CourseCatalog(CourseMapper courseMapper, SeatInventory seatInventory) {
+        this.courseMapper = courseMapper;
+        this.seatInventory = seatInventory;
+    }
+
+    /**
+     * 启动完成后加载课程目录
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+        logger.info("课程目录加载完成，共 {} 门课程", snapshot.size());
+    }
+
+    /**
+     * 重新加载课程目录
+     * 课程新建、修改后调用，同时定时执行以移除已过期的课程
+     */
+    @Scheduled(fixedDelayString = "${gym.course-catalog.refresh-interval-ms:60000}",
+            initialDelayString = "${gym.course-catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        snapshot = Collections.unmodifiableList(courseMapper.selectUpcomingCatalog());
+    }
+
+    /**
+     * 获取可预约的课程
+     * 上课时间未到且名额未满，返回的是副本，报名人数取自名额库存
+     * @return 可预约课程列表
+     */
+    public List<Course> getAvailableCourses() {
+        List<Course> courses = snapshot;
+        if (courses == null) {
+            refresh();
+            courses = snapshot;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Course> available = new ArrayList<>();
+        for (Course course : courses) {
+            if (!course.getScheduleTime().isAfter(now)) {
+                continue;
+            }
+            Integer taken = seatInventory.getTaken(course.getId());
+            int currentCount = taken != null ? taken : course.getCurrentCount();
+            if (currentCount < course.getMaxCapacity()) {
+                available.add(copy(course, currentCount));
+            }
+        }
+        return available;
+    }
+
+    private Course copy(Course course, int currentCount) {
+        Course copy = new Course();
+        copy.setId(course.getId());
+        copy.setName(course.getName());
+        copy.setScheduleTime(course.getScheduleTime());
+        copy.setTrainerId(course.getTrainerId());
+        copy.setMaxCapacity(course.getMaxCapacity());
+        copy.setCurrentCount(currentCount);
+        copy.setCoachName(course.getCoachName());
+        return copy;
+    }
+}
@@ -0,0 +1,177 @@
+package com.gym.cache;
+
+import com.gym.dto.UserCredential;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录凭证缓存
+ * 按手机号缓存登录所需的凭证，减少登录高峰时对user表的查询；
+ * 按条数（LRU淘汰）和存活时间双重限制，密码、状态等变化时由调用方主动失效。
+ * 注意：缓存只存在于当前进程，多实例部署时其他实例的缓存只能等待过期。
+ * 加载凭证期间发生的失效会通过代数检测出来，避免把失效前查到的旧凭证放回缓存。
+ */
+@Component
+public class CredentialCache {
+
+    private static final int GENERATION_SLOTS = 1024;
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    /**
+     * 手机号 -> 缓存项，按访问顺序排列，最久未访问的在最前
+     */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * 按手机号哈希分槽的失效代数，失效时递增；
+     * 分槽保证内存占用固定，不同手机号落在同一槽只会多跳过几次缓存写入
+     */
+    private final long[] generations = new long[GENERATION_SLOTS];
+
+    /**
+     * 按用户ID失效的次数，此时不知道手机号，所有手机号的代数都视为已变化
+     */
+    private long idGeneration;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public CredentialCache(@Value("${gym.credential-cache.max-size:10000}") int maxSize,
+                           @Value("${gym.credential-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > CredentialCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存的凭证
+     * @param phone 手机号
+     * @return 凭证，未缓存或已过期时返回null
+     */
+    public UserCredential get(String phone) {
+        synchronized (entries) {
+            Entry entry = entries.get(phone);
+            if (entry != null && entry.expireAt > System.currentTimeMillis()) {
+                hits.increment();
+                return entry.credential;
+            }
+            if (entry != null) {
+                entries.remove(phone);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 获取手机号当前的失效代数
+     * 从数据库加载凭证之前调用，加载完成后连同代数一起传给put
+     * @param phone 手机号
+     * @return 失效代数
+     */
+    public long generation(String phone) {
+        synchronized (entries) {
+            return generations[slot(phone)] + idGeneration;
+        }
+    }
+
+    /**
+     * 缓存凭证
+     * 加载期间该手机号被失效过时不缓存，凭证可能是失效前查到的旧数据
+     * @param credential 凭证
+     * @param generation 加载前通过generation获取的失效代数
+     */
+    public void put(UserCredential credential, long generation) {
+        if (maxSize <= 0) {
+            return;
+        }
+        Entry entry = new Entry(credential, System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            if (generations[slot(credential.getPhone())] + idGeneration != generation) {
+                return;
+            }
+            entries.put(credential.getPhone(), entry);
+        }
+    }
+
+    /**
+     * 按手机号失效
+     * @param phone 手机号
+     */
+    public void invalidate(String phone) {
+        if (phone == null) {
+            return;
+        }
+        synchronized (entries) {
+            generations[slot(phone)]++;
+            entries.remove(phone);
+        }
+    }
+
+    /**
+     * 按用户ID失效
+     * 只在修改用户信息时调用，遍历缓存即可
+     * @param userId 用户ID
+     */
+    public void invalidateById(Long userId) {
+        synchronized (entries) {
+            idGeneration++;
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (userId.equals(it.next().credential.getId())) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     * @return 缓存条数、命中次数、未命中次数和命中率
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+    private static int slot(String phone) {
+        return (phone.hashCode() & Integer.MAX_VALUE) % GENERATION_SLOTS;
+    }
+
+    private static final class Entry {
+
+        private final UserCredential credential;
+
+        private final long expireAt;
+
+        private Entry(UserCredential credential, long expireAt) {
+            this.credential = credential;
+            this.expireAt = expireAt;
+        }
+    }
+}
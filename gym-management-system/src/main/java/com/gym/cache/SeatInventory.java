@@ -0,0 +1,434 @@
+package com.gym.cache;
+
+import com.gym.entity.Course;
+import com.gym.mapper.CourseMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 课程名额库存
+ * 在内存中按课程维护已占用名额，作为预约时判断是否满员的唯一依据；
+ * 名额变化只标记为"脏"，由定时任务批量回写到 course.current_count。
+ * 启动时先用 booking 表的实际预约数校正 current_count，保证崩溃后数据可以恢复。
+ * 内存库存只在单实例下正确：MySQL 下启动时用独立连接持有 GET_LOCK 命名锁，其他实例已持有时拒绝启动；
+ * 运行中锁丢失（连接断开）时停止占用名额，直到重新获取锁并从数据库重新加载名额。
+ * 多实例部署时设置 gym.seat-inventory.mode=database，改为在预约事务中对 course 行做条件更新。
+ */
+@Component
+public class SeatInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventory.class);
+
+    /**
+     * 单次回写的最大课程数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private static final String LOCK_NAME = "gym_seat_inventory";
+
+    private final CourseMapper courseMapper;
+
+    private final DataSource dataSource;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    /**
+     * 是否使用数据库条件更新（多实例部署）
+     */
+    private final boolean databaseMode;
+
+    /**
+     * 持有实例锁的独立连接，不占用连接池；非MySQL数据库或数据库模式下为null
+     */
+    private Connection lockConnection;
+
+    /**
+     * 是否需要持有实例锁（MySQL 且为内存模式）
+     */
+    private volatile boolean lockRequired;
+
+    /**
+     * 当前实例是否持有实例锁，未持有时拒绝占用名额
+     */
+    private volatile boolean owner = true;
+
+    /**
+     * 课程ID -> 名额计数
+     */
+    private final ConcurrentHashMap<Long, Seats> seats = new ConcurrentHashMap<>();
+
+    /**
+     * 名额发生变化、尚未回写数据库的课程ID
+     */
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public SeatInventory(CourseMapper courseMapper, DataSource dataSource, DataSourceProperties dataSourceProperties,
+                         @Value("${gym.seat-inventory.mode:memory}") String mode) {
+        if (!"memory".equals(mode) && !"database".equals(mode)) {
+            throw new IllegalStateException("不支持的名额库存模式: " + mode);
+        }
+        this.courseMapper = courseMapper;
+        this.dataSource = dataSource;
+        this.dataSourceProperties = dataSourceProperties;
+        this.databaseMode = "database".equals(mode);
+    }
+
+    /**
+     * 内存模式下获取实例锁，其他实例已持有时拒绝启动
+     */
+    @PostConstruct
+    public void acquireOwnership() throws SQLException {
+        if (databaseMode) {
+            logger.info("课程名额库存使用数据库条件更新");
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")) {
+                return;
+            }
+        }
+        lockRequired = true;
+        if (!tryLock()) {
+            throw new IllegalStateException("检测到其他实例正在使用内存名额库存，多实例部署请设置 gym.seat-inventory.mode=database");
+        }
+    }
+
+    /**
+     * 定期检查实例锁，同时保持独立连接不因空闲被数据库断开
+     * 锁丢失后停止占用名额，重新获取到锁时从数据库重新加载名额
+     */
+    @Scheduled(fixedDelayString = "${gym.seat-inventory.owner-check-interval-ms:30000}")
+    public synchronized void checkOwnership() {
+        if (!lockRequired) {
+            return;
+        }
+        if (owner) {
+            try (PreparedStatement check = lockConnection.prepareStatement("SELECT IS_USED_LOCK(?) = CONNECTION_ID()")) {
+                check.setString(1, LOCK_NAME);
+                try (ResultSet rs = check.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) == 1) {
+                        return;
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("检查名额库存实例锁失败: {}", e.getMessage());
+            }
+            owner = false;
+            logger.error("名额库存实例锁已丢失，暂停预约，等待重新获取");
+            return;
+        }
+        try {
+            if (tryLock()) {
+                dirty.clear();
+                seats.clear();
+                load();
+                owner = true;
+                logger.warn("已重新获取名额库存实例锁，恢复预约");
+            } else {
+                logger.error("名额库存实例锁被其他实例持有，当前实例暂停预约；多实例部署请设置 gym.seat-inventory.mode=database");
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.error("重新获取名额库存实例锁失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 启动完成后校正并加载未开始课程的名额
+     * 在此之前访问到的课程会按需单独加载；数据库模式下只校正 current_count
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int fixed = courseMapper.reconcileCurrentCounts();
+        if (fixed > 0) {
+            logger.warn("课程报名人数与预约记录不一致，已校正 {} 门课程", fixed);
+        }
+        if (databaseMode) {
+            return;
+        }
+        List<Course> courses = courseMapper.selectUpcomingSeatCounts();
+        for (Course course : courses) {
+            seats.putIfAbsent(course.getId(), new Seats(course.getMaxCapacity(), course.getCurrentCount()));
+        }
+        logger.info("课程名额库存加载完成，共 {} 门课程", courses.size());
+    }
+
+    /**
+     * 尝试占用一个名额
+     * 在事务中调用时，事务回滚会自动归还名额；数据库模式下必须在事务中调用
+     * @param courseId 课程ID
+     * @return 是否占用成功，课程已满或不存在时返回false
+     */
+    public boolean tryAcquire(Long courseId) {
+        if (databaseMode) {
+            return courseMapper.claimSeat(courseId) == 1;
+        }
+        if (!owner) {
+            throw new RuntimeException("预约服务暂不可用，请稍后重试");
+        }
+        Seats course = get(courseId);
+        if (course == null || !course.tryAcquire()) {
+            return false;
+        }
+        dirty.add(courseId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        doRelease(courseId);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * 归还一个名额
+     * 在事务中调用时，事务提交后才真正归还
+     * @param courseId 课程ID
+     */
+    public void release(Long courseId) {
+        if (databaseMode) {
+            courseMapper.releaseSeat(courseId);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doRelease(courseId);
+                }
+            });
+        } else {
+            doRelease(courseId);
+        }
+    }
+
+    /**
+     * 判断课程是否已满
+     * @param courseId 课程ID
+     * @return 是否已满，课程不存在时视为已满
+     */
+    public boolean isFull(Long courseId) {
+        if (databaseMode) {
+            Course course = courseMapper.selectSeatCountById(courseId);
+            return course == null || course.getCurrentCount() >= course.getMaxCapacity();
+        }
+        Seats course = get(courseId);
+        return course == null || course.taken.get() >= course.capacity;
+    }
+
+    /**
+     * 获取课程当前已占用名额
+     * @param courseId 课程ID
+     * @return 已占用名额，课程不存在或数据库模式下返回null（由调用方使用课程自身的报名人数）
+     */
+    public Integer getTaken(Long courseId) {
+        if (databaseMode) {
+            return null;
+        }
+        Seats course = get(courseId);
+        return course != null ? course.taken.get() : null;
+    }
+
+    /**
+     * 登记新建的课程
+     * @param course 课程对象
+     */
+    public void register(Course course) {
+        if (databaseMode) {
+            return;
+        }
+        seats.put(course.getId(), new Seats(course.getMaxCapacity(), course.getCurrentCount()));
+    }
+
+    /**
+     * 更新课程最大容量
+     * @param courseId 课程ID
+     * @param maxCapacity 最大容量
+     */
+    public void updateCapacity(Long courseId, int maxCapacity) {
+        Seats course = seats.get(courseId);
+        if (course != null) {
+            course.capacity = maxCapacity;
+        }
+    }
+
+    /**
+     * 将有变化的名额批量回写到 course.current_count
+     */
+    @Scheduled(fixedDelayString = "${gym.seat-inventory.flush-interval-ms:1000}")
+    public void flush() {
+        // 锁丢失期间其他实例可能已接管，不再回写本实例的计数
+        if (databaseMode || !owner || dirty.isEmpty()) {
+            return;
+        }
+        List<Course> batch = new ArrayList<>();
+        Iterator<Long> it = dirty.iterator();
+        while (it.hasNext()) {
+            Long courseId = it.next();
+            it.remove();
+            Seats course = seats.get(courseId);
+            if (course == null) {
+                continue;
+            }
+            Course update = new Course();
+            update.setId(courseId);
+            update.setCurrentCount(course.taken.get());
+            batch.add(update);
+            if (batch.size() == FLUSH_BATCH_SIZE) {
+                write(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * 关闭前回写剩余的变化
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        flush();
+        lockRequired = false;
+        if (lockConnection != null) {
+            try {
+                lockConnection.close();
+            } catch (SQLException e) {
+                // 连接关闭时锁会自动释放
+                logger.warn("关闭名额库存实例锁连接失败: {}", e.getMessage());
+            }
+            lockConnection = null;
+        }
+    }
+
+    /**
+     * 用独立连接获取实例锁，不等待
+     * 连接不经过连接池，避免被连接池回收或触发连接泄漏检测
+     */
+    private boolean tryLock() throws SQLException {
+        if (lockConnection != null) {
+            try {
+                lockConnection.close();
+            } catch (SQLException e) {
+                logger.debug("关闭失效的实例锁连接: {}", e.getMessage());
+            }
+            lockConnection = null;
+        }
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            lock.setString(1, LOCK_NAME);
+            try (ResultSet rs = lock.executeQuery()) {
+                if (rs.next() && rs.getInt(1) == 1) {
+                    lockConnection = connection;
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        connection.close();
+        return false;
+    }
+
+    private void write(List<Course> batch) {
+        try {
+            courseMapper.updateCurrentCounts(batch);
+        } catch (RuntimeException e) {
+            // 回写失败时重新标记，等待下一轮重试
+            for (Course course : batch) {
+                dirty.add(course.getId());
+            }
+            logger.error("回写课程报名人数失败: {}", e.getMessage());
+        }
+    }
+
+    private void doRelease(Long courseId) {
+        Seats course = seats.get(courseId);
+        if (course != null && course.release()) {
+            dirty.add(courseId);
+        }
+    }
+
+    /**
+     * 获取课程名额，未加载的课程从数据库按需加载
+     */
+    private Seats get(Long courseId) {
+        Seats course = seats.get(courseId);
+        if (course != null) {
+            return course;
+        }
+        Course loaded = courseMapper.selectSeatCountById(courseId);
+        if (loaded == null) {
+            return null;
+        }
+        return seats.computeIfAbsent(courseId, id -> new Seats(loaded.getMaxCapacity(), loaded.getCurrentCount()));
+    }
+
+    /**
+     * 单门课程的名额计数，通过CAS保证并发安全
+     */
+    private static final class Seats {
+
+        private final AtomicInteger taken;
+
+        private volatile int capacity;
+
+        private Seats(Integer capacity, Integer taken) {
+            this.capacity = capacity != null ? capacity : 0;
+            this.taken = new AtomicInteger(taken != null ? taken : 0);
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                int current = taken.get();
+                if (current >= capacity) {
+                    return false;
+                }
+                if (taken.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean release() {
+            while (true) {
+                int current = taken.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (taken.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
@@ -23,10 +24,15 @@ public class MyBatisConfig {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private SlowQueryInterceptor slowQueryInterceptor;
+
     /**
      * 配置 SqlSessionFactory
+     * 依赖数据库迁移执行器，保证所有Mapper使用的都是迁移后的表结构
      */
     @Bean
+    @DependsOn("schemaMigrationRunner")
     public SqlSessionFactory sqlSessionFactory() throws Exception {
         SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
 
@@ -43,9 +49,10 @@ public class MyBatisConfig {
         // 配置 MyBatis 全局设置
         org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
         configuration.setMapUnderscoreToCamelCase(true); // 开启驼峰命名转换
-        configuration.setLogImpl(org.apache.ibatis.logging.stdout.StdOutImpl.class); // 输出 SQL 日志
 
         factoryBean.setConfiguration(configuration);
+        // 统计语句耗时，只记录慢SQL
+        factoryBean.setPlugins(slowQueryInterceptor);
 
         return factoryBean.getObject();
     }
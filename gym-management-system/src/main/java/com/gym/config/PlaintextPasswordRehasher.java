@@ -0,0 +1,60 @@
+package com.gym.config;
+
+import com.gym.dto.UserCredential;
+import com.gym.mapper.UserMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 启动时加密早期版本保存的明文密码
+ * 加密完成后登录只接受BCrypt格式的密码；多个实例同时启动时，
+ * 按原密码条件更新，先完成的实例生效，其余实例的更新自动跳过
+ */
+@Component
+public class PlaintextPasswordRehasher implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaintextPasswordRehasher.class);
+
+    /**
+     * 每批处理的用户数量
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private final UserMapper userMapper;
+
+    private final PasswordEncoder passwordEncoder;
+
+    public PlaintextPasswordRehasher(UserMapper userMapper, PasswordEncoder passwordEncoder) {
+        this.userMapper = userMapper;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(String... args) {
+        int rehashed = 0;
+        while (true) {
+            List<UserCredential> batch = userMapper.selectPlaintextPasswords(BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            int updated = 0;
+            for (UserCredential credential : batch) {
+                String encoded = passwordEncoder.encode(credential.getPassword());
+                updated += userMapper.updatePasswordIfUnchanged(credential.getId(), credential.getPassword(), encoded);
+            }
+            rehashed += updated;
+            // 整批都被其他实例抢先更新时，剩余的也交给其他实例处理
+            if (updated == 0) {
+                break;
+            }
+        }
+        if (rehashed > 0) {
+            logger.info("已加密{}个明文密码", rehashed);
+        }
+    }
+}
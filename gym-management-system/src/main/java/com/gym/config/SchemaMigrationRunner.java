@@ -0,0 +1,349 @@
+package com.gym.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 数据库迁移执行器
+ * 启动时按版本号顺序执行 classpath:db/migration 下的 V{版本号}__{说明}.sql，
+ * 已执行的脚本记录在 schema_migration 表中（校验和、执行耗时），不会重复执行；
+ * 已执行的脚本内容被修改时拒绝启动。MySQL 下通过 GET_LOCK 加锁，多个实例同时启动时只有一个执行迁移。
+ * MySQL 的 DDL 会隐式提交，脚本中途失败时已执行的语句无法回滚，脚本也不会被记录；
+ * 因此补列、改列的语句前可以加条件指令，已满足时跳过该语句，使脚本可以安全地重复执行：
+ * <pre>
+ * -- @skip-if-column-exists 表名.列名      列已存在时跳过（ADD COLUMN）
+ * -- @skip-if-column-nullable 表名.列名    列已允许为空时跳过（MODIFY COLUMN ... NULL）
+ * </pre>
+ * 指令行不计入校验和，给已执行过的脚本补充指令不会被视为修改。
+ * MyBatis 的 SqlSessionFactory 依赖本组件，因此迁移先于所有数据库访问（包括 DataInitializer）完成。
+ * gym_management_system_tables.sql 是迁移的基线，新建数据库时先手工执行该脚本。
+ */
+@Component("schemaMigrationRunner")
+public class SchemaMigrationRunner implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationRunner.class);
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private static final Pattern DIRECTIVE = Pattern.compile("--\\s*@(\\S+)\\s+(\\w+)\\.(\\w+)\\s*");
+
+    private static final String SKIP_IF_COLUMN_EXISTS = "skip-if-column-exists";
+
+    private static final String SKIP_IF_COLUMN_NULLABLE = "skip-if-column-nullable";
+
+    private static final String LOCK_NAME = "gym_schema_migration";
+
+    private final DataSource dataSource;
+
+    private final boolean enabled;
+
+    private final String locations;
+
+    private final int lockTimeoutSeconds;
+
+    public SchemaMigrationRunner(DataSource dataSource,
+                                 @Value("${gym.migration.enabled:true}") boolean enabled,
+                                 @Value("${gym.migration.locations:classpath:db/migration/*.sql}") String locations,
+                                 @Value("${gym.migration.lock-timeout-seconds:60}") int lockTimeoutSeconds) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.locations = locations;
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!enabled) {
+            logger.info("数据库迁移已关闭");
+            return;
+        }
+        List<Script> scripts = loadScripts();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            if (mysql) {
+                acquireLock(connection);
+            }
+            try {
+                migrate(connection, scripts);
+            } finally {
+                if (mysql) {
+                    releaseLock(connection);
+                }
+            }
+        }
+    }
+
+    /**
+     * 执行尚未执行的脚本
+     */
+    private void migrate(Connection connection, List<Script> scripts) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_migration (" +
+                    "version INT NOT NULL PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "script VARCHAR(255) NOT NULL, " +
+                    "checksum VARCHAR(64) NOT NULL, " +
+                    "execution_ms BIGINT NOT NULL, " +
+                    "installed_at DATETIME NOT NULL)");
+        }
+
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_migration")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+
+        int executed = 0;
+        for (Script script : scripts) {
+            String checksum = applied.get(script.version);
+            if (checksum != null) {
+                if (!checksum.equals(script.checksum)) {
+                    throw new IllegalStateException("迁移脚本 " + script.name + " 已执行，但内容已被修改");
+                }
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                for (ScriptStatement sql : script.statements) {
+                    if (sql.directive != null && isSatisfied(connection, sql)) {
+                        logger.info("迁移脚本 {} 跳过已满足条件 {} {}.{} 的语句", script.name, sql.directive, sql.table, sql.column);
+                        continue;
+                    }
+                    statement.execute(sql.sql);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("迁移脚本 " + script.name + " 执行失败: " + e.getMessage(), e);
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO schema_migration (version, description, script, checksum, execution_ms, installed_at) " +
+                            "VALUES (?, ?, ?, ?, ?, ?)")) {
+                insert.setInt(1, script.version);
+                insert.setString(2, script.description);
+                insert.setString(3, script.name);
+                insert.setString(4, script.checksum);
+                insert.setLong(5, elapsedMs);
+                insert.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+                insert.executeUpdate();
+            }
+            logger.info("已执行数据库迁移 {}，耗时 {} ms", script.name, elapsedMs);
+            executed++;
+        }
+        logger.info("数据库迁移完成，本次执行 {} 个脚本，共 {} 个脚本", executed, scripts.size());
+    }
+
+    /**
+     * 判断语句的条件指令是否已满足
+     */
+    private boolean isSatisfied(Connection connection, ScriptStatement sql) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, sql.table, sql.column)) {
+            if (!rs.next()) {
+                return false;
+            }
+            if (SKIP_IF_COLUMN_EXISTS.equals(sql.directive)) {
+                return true;
+            }
+            return rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
+        }
+    }
+
+    /**
+     * 加载并按版本号排序迁移脚本
+     */
+    private List<Script> loadScripts() throws IOException, NoSuchAlgorithmException {
+        List<Script> scripts = new ArrayList<>();
+        Map<Integer, String> names = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(locations)) {
+            String name = resource.getFilename();
+            Matcher matcher = name != null ? SCRIPT_NAME.matcher(name) : null;
+            if (matcher == null || !matcher.matches()) {
+                logger.warn("忽略不符合命名规则的迁移脚本 {}", name);
+                continue;
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            String duplicate = names.put(version, name);
+            if (duplicate != null) {
+                throw new IllegalStateException("迁移脚本版本号重复: " + duplicate + ", " + name);
+            }
+            // 统一换行符，避免不同系统检出的同一脚本校验和不同
+            String content = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8)
+                    .replace("\r\n", "\n");
+            scripts.add(new Script(version, matcher.group(2).replace('_', ' '), name, parse(name, content),
+                    sha256(withoutDirectives(content))));
+        }
+        scripts.sort(Comparator.comparingInt(script -> script.version));
+        return scripts;
+    }
+
+    /**
+     * 获取MySQL命名锁，其他实例正在迁移时等待
+     */
+    private void acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            lock.setString(1, LOCK_NAME);
+            lock.setInt(2, lockTimeoutSeconds);
+            try (ResultSet rs = lock.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new IllegalStateException("等待数据库迁移锁超时，其他实例可能正在执行迁移");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) {
+        try (PreparedStatement unlock = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            unlock.setString(1, LOCK_NAME);
+            unlock.executeQuery().close();
+        } catch (SQLException e) {
+            // 连接关闭时锁会自动释放
+            logger.warn("释放数据库迁移锁失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按分号拆分为单条语句，忽略整行注释，条件指令作用于其后的第一条语句
+     */
+    private static List<ScriptStatement> parse(String name, String content) {
+        List<ScriptStatement> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        Matcher pending = null;
+        for (String line : content.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("--")) {
+                if (!trimmed.replaceFirst("--\\s*", "").startsWith("@")) {
+                    continue;
+                }
+                Matcher directive = DIRECTIVE.matcher(trimmed);
+                if (!directive.matches() || (!SKIP_IF_COLUMN_EXISTS.equals(directive.group(1))
+                        && !SKIP_IF_COLUMN_NULLABLE.equals(directive.group(1)))) {
+                    throw new IllegalStateException("迁移脚本 " + name + " 中的指令无法识别: " + trimmed);
+                }
+                if (pending != null || !current.toString().trim().isEmpty()) {
+                    throw new IllegalStateException("迁移脚本 " + name + " 中的指令必须紧接在语句之前: " + trimmed);
+                }
+                pending = directive;
+                continue;
+            }
+            current.append(line).append('\n');
+            int end;
+            while ((end = current.indexOf(";")) >= 0) {
+                String sql = current.substring(0, end).trim();
+                current.delete(0, end + 1);
+                if (!sql.isEmpty()) {
+                    statements.add(new ScriptStatement(sql, pending));
+                    pending = null;
+                }
+            }
+        }
+        String last = current.toString().trim();
+        if (!last.isEmpty()) {
+            statements.add(new ScriptStatement(last, pending));
+        } else if (pending != null) {
+            throw new IllegalStateException("迁移脚本 " + name + " 中的指令后没有语句: " + pending.group());
+        }
+        return statements;
+    }
+
+    /**
+     * 去掉条件指令行，用于计算校验和
+     */
+    private static String withoutDirectives(String content) {
+        StringBuilder result = new StringBuilder();
+        for (String line : content.split("\n", -1)) {
+            if (DIRECTIVE.matcher(line.trim()).matches()) {
+                continue;
+            }
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append(line);
+        }
+        return result.toString();
+    }
+
+    private static String sha256(String content) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * 迁移脚本
+     */
+    private static final class Script {
+
+        private final int version;
+
+        private final String description;
+
+        private final String name;
+
+        private final List<ScriptStatement> statements;
+
+        private final String checksum;
+
+        private Script(int version, String description, String name, List<ScriptStatement> statements, String checksum) {
+            this.version = version;
+            this.description = description;
+            this.name = name;
+            this.statements = statements;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * 迁移脚本中的单条语句及其条件指令
+     */
+    private static final class ScriptStatement {
+
+        private final String sql;
+
+        private final String directive;
+
+        private final String table;
+
+        private final String column;
+
+        private ScriptStatement(String sql, Matcher directive) {
+            this.sql = sql;
+            this.directive = directive != null ? directive.group(1) : null;
+            this.table = directive != null ? directive.group(2) : null;
+            this.column = directive != null ? directive.group(3) : null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.gym.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -10,9 +11,12 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
 import org.springframework.security.core.authority.mapping.SimpleAuthorityMapper;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
 
 /**
  * Spring Security 配置类
@@ -26,13 +30,28 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @org.springframework.context.annotation.Lazy
     private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
 
+    @Autowired
+    @org.springframework.context.annotation.Lazy
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
 
     /**
-     * 配置密码编码器 - 使用 BCryptPasswordEncoder
+     * 会话注册表，记录每个登录用户的会话，用于用户信息变更后使会话失效
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public SessionRegistry sessionRegistry() {
+        return new SessionRegistryImpl();
+    }
+
+    /**
+     * 发布会话销毁事件，使会话注册表及时移除已销毁的会话
+     */
+    @Bean
+    public HttpSessionEventPublisher httpSessionEventPublisher() {
+        return new HttpSessionEventPublisher();
     }
 
     /**
@@ -117,6 +136,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/coach/**").hasRole("TRAINER")
                 // 管理员权限路径
                 .antMatchers("/admin/**").hasRole("ADMIN")
+                // 运行指标只对管理员开放
+                .antMatchers("/actuator/**").hasRole("ADMIN")
                 // 其他所有请求必须认证
                 .anyRequest().authenticated()
                 .and()
@@ -144,61 +165,20 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             // 会话管理：同一用户只允许一个会话
             .sessionManagement()
                 .maximumSessions(1)
+                .sessionRegistry(sessionRegistry())
                 .expiredUrl("/login?expired=true");
     }
 
     /**
-     * 配置认证管理，使用自定义的 UserDetailsService 和 BCrypt 密码编码器
-     * 添加调试日志以帮助诊断密码验证问题
+     * 配置认证管理，使用自定义的 UserDetailsService 和密码哈希服务
+     * 登录成功后如果密码的BCrypt强度与配置不同，自动重新加密保存
      */
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        // 使用自定义的密码编码器，添加调试功能
-        PasswordEncoder customEncoder = new PasswordEncoder() {
-            private final BCryptPasswordEncoder bCryptEncoder = new BCryptPasswordEncoder();
-            
-            @Override
-            public String encode(CharSequence rawPassword) {
-                return bCryptEncoder.encode(rawPassword);
-            }
-            
-            @Override
-            public boolean matches(CharSequence rawPassword, String encodedPassword) {
-                // 添加调试日志
-                org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SecurityConfig.class);
-                logger.info("尝试验证密码，原始密码长度: {}, 编码后密码: {}", 
-                           rawPassword != null ? rawPassword.length() : 0, 
-                           encodedPassword != null ? encodedPassword.substring(0, Math.min(12, encodedPassword.length())) + "..." : "null");
-                
-                try {
-                    // 对于测试账户，允许使用默认密码"123456"进行匹配
-                    if (rawPassword != null && "123456".equals(rawPassword.toString())) {
-                        logger.info("使用测试密码进行匹配");
-                        // 检查是否是管理员或其他测试账户
-                        return true;
-                    }
-                    
-                    // 尝试使用BCrypt进行匹配
-                    if (encodedPassword != null && encodedPassword.startsWith("$2a$")) {
-                        try {
-                            boolean result = bCryptEncoder.matches(rawPassword, encodedPassword);
-                            logger.info("BCrypt密码匹配结果: {}", result);
-                            return result;
-                        } catch (Exception e) {
-                            logger.warn("BCrypt验证失败: {}", e.getMessage());
-                        }
-                    }
-                    
-                    // 如果BCrypt失败，尝试明文匹配（仅用于测试环境）
-                    logger.warn("尝试明文密码匹配");
-                    return rawPassword != null && rawPassword.toString().equals(encodedPassword);
-                } catch (Exception e) {
-                    logger.error("密码验证异常: {}", e.getMessage());
-                    return false;
-                }
-            }
-        };
-        
-        auth.userDetailsService(userDetailsService).passwordEncoder(customEncoder);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
+        provider.setPasswordEncoder(passwordEncoder);
+        auth.authenticationProvider(provider);
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.gym.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 慢SQL拦截器
+ * 统计每条Mapper语句的耗时（Micrometer指标 gym.sql.statement，按语句ID区分，带耗时直方图），
+ * 只有超过阈值的语句才写日志，日志内容为语句ID、参数名称和类型、行数，不输出参数值；
+ * 慢SQL日志通过 logback-spring.xml 中的异步Appender输出，数据库整体变慢时可按比例采样。
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class SlowQueryInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger("com.gym.slow-query");
+
+    private static final Pattern GENERIC_PARAM_NAME = Pattern.compile("param\\d+");
+
+    private final MeterRegistry meterRegistry;
+
+    private final long thresholdNanos;
+
+    private final double sampleRate;
+
+    /**
+     * 语句ID -> 耗时指标
+     */
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public SlowQueryInterceptor(MeterRegistry meterRegistry,
+                                @Value("${gym.slow-query.threshold-ms:200}") long thresholdMs,
+                                @Value("${gym.slow-query.sample-rate:1.0}") double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        Object result = null;
+        boolean success = false;
+        try {
+            result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(statement).record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed >= thresholdNanos && sampled()) {
+                logger.warn("慢SQL {} 耗时 {} ms，参数 {}，行数 {}{}",
+                        statement.getId(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        describe(invocation.getArgs()[1]), rowCount(result), success ? "" : "（执行失败）");
+            }
+        }
+    }
+
+    private Timer timer(MappedStatement statement) {
+        return timers.computeIfAbsent(statement.getId(), id -> Timer.builder("gym.sql.statement")
+                .description("Mapper语句耗时")
+                .tag("statement", id)
+                .tag("type", statement.getSqlCommandType().name())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * 参数描述：只包含参数名称和值的类型，集合参数附带元素个数，不包含任何参数值；
+     * 手机号、密码等取值范围小的值即使做哈希也能被穷举还原，因此不记录摘要
+     */
+    private static String describe(Object parameter) {
+        if (parameter == null) {
+            return "-";
+        }
+        if (!(parameter instanceof Map)) {
+            return typeOf(parameter);
+        }
+        TreeMap<String, String> types = new TreeMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) parameter).entrySet()) {
+            String name = String.valueOf(entry.getKey());
+            // MyBatis为每个参数额外生成的param1、param2等别名
+            if (!GENERIC_PARAM_NAME.matcher(name).matches()) {
+                types.put(name, typeOf(entry.getValue()));
+            }
+        }
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        types.forEach((name, type) -> joiner.add(name + ":" + type));
+        return joiner.toString();
+    }
+
+    private static String typeOf(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String type = value.getClass().getSimpleName();
+        if (value instanceof Collection) {
+            return type + "(" + ((Collection<?>) value).size() + ")";
+        }
+        if (value.getClass().isArray()) {
+            return type.replace("[]", "[" + Array.getLength(value) + "]");
+        }
+        return type;
+    }
+
+    /**
+     * 查询返回结果行数，更新返回影响行数，游标无法提前得知行数
+     */
+    private static Object rowCount(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Integer) {
+            return result;
+        }
+        return "-";
+    }
+}
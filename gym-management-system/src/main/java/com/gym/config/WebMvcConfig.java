@@ -6,6 +6,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * WebMvc配置类，用于配置静态资源映射等
+ * 头像文件（/avatar/**）由 AvatarController 提供，以便输出按内容哈希生成的 ETag 和零拷贝响应体
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
@@ -15,11 +16,6 @@ public class WebMvcConfig implements WebMvcConfigurer {
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 配置头像文件的访问路径（包括子目录）
-        registry.addResourceHandler("/avatar/**")
-                .addResourceLocations("file:d:/ZSCzy/AI/gym03/gym-management-system/avatar/")
-                .setCachePeriod(3600);
-        
         // 配置默认的静态资源位置（classpath:/static/）
         registry.addResourceHandler("/static/**")
                 .addResourceLocations("classpath:/static/")
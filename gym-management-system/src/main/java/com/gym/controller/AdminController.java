@@ -1,12 +1,20 @@
 package com.gym.controller;
 
+import com.gym.cache.CredentialCache;
+import com.gym.dto.CoachView;
+import com.gym.dto.CursorPage;
+import com.gym.dto.DashboardStats;
+import com.gym.dto.MemberImportResult;
 import com.gym.entity.CoachInfo;
 import com.gym.entity.User;
 import com.gym.mapper.CoachInfoMapper;
 import com.gym.mapper.UserMapper;
 import com.gym.service.UserService;
 import com.gym.service.CourseService;
-import com.gym.service.MembershipCardService;
+import com.gym.service.AvatarStorageService;
+import com.gym.service.CoachStatsService;
+import com.gym.service.DashboardStatsService;
+import com.gym.service.MemberImportService;
 import com.gym.service.CoachInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,7 +24,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,19 +39,28 @@ public class AdminController {
 
     private final UserService userService;
     private final CourseService courseService;
-    private final MembershipCardService membershipCardService;
+    private final DashboardStatsService dashboardStatsService;
     private final CoachInfoMapper coachInfoMapper;
     private final CoachInfoService coachInfoService;
     private final UserMapper userMapper;
+    private final CredentialCache credentialCache;
+    private final CoachStatsService coachStatsService;
+    private final AvatarStorageService avatarStorageService;
+    private final MemberImportService memberImportService;
 
     @Autowired
-    public AdminController(UserService userService, CourseService courseService, MembershipCardService membershipCardService, CoachInfoMapper coachInfoMapper, CoachInfoService coachInfoService, UserMapper userMapper) {
+    public AdminController(UserService userService, CourseService courseService, DashboardStatsService dashboardStatsService, CoachInfoMapper coachInfoMapper, CoachInfoService coachInfoService, UserMapper userMapper, CredentialCache credentialCache, CoachStatsService coachStatsService,
+                           AvatarStorageService avatarStorageService, MemberImportService memberImportService) {
         this.userService = userService;
         this.courseService = courseService;
-        this.membershipCardService = membershipCardService;
+        this.dashboardStatsService = dashboardStatsService;
         this.coachInfoMapper = coachInfoMapper;
         this.coachInfoService = coachInfoService;
         this.userMapper = userMapper;
+        this.credentialCache = credentialCache;
+        this.coachStatsService = coachStatsService;
+        this.avatarStorageService = avatarStorageService;
+        this.memberImportService = memberImportService;
     }
 
     /**
@@ -58,21 +74,12 @@ public class AdminController {
         // 确保模型中始终有必要的属性，防止从其他页面返回时属性丢失
         if (!model.containsAttribute("memberCount")) {
             try {
-                // 获取会员数量
-                int memberCount = userService.countMembers();
-                model.addAttribute("memberCount", memberCount);
-                
-                // 获取教练数量
-                int coachCount = userService.countTrainers();
-                model.addAttribute("coachCount", coachCount);
-                
-                // 获取课程数量
-                int courseCount = courseService.countCourses();
-                model.addAttribute("courseCount", courseCount);
-                
-                // 获取会员卡类型数量
-                int cardTypeCount = membershipCardService.countCardTypes();
-                model.addAttribute("cardTypeCount", cardTypeCount);
+                // 统计数量来自缓存，缓存过期时一条SQL重新查询
+                DashboardStats stats = dashboardStatsService.getStats();
+                model.addAttribute("memberCount", stats.getMemberCount());
+                model.addAttribute("coachCount", stats.getCoachCount());
+                model.addAttribute("courseCount", stats.getCourseCount());
+                model.addAttribute("cardTypeCount", stats.getCardTypeCount());
             } catch (Exception e) {
                 // 如果发生异常，设置默认值
                 model.addAttribute("memberCount", 0);
@@ -88,10 +95,14 @@ public class AdminController {
 
     /**
      * 显示会员列表页面
+     * 按会员ID游标分页，总数只在查询第一页时统计
      * @param name 会员姓名
-     * @param phone 会员手机号
+     * @param phone 会员手机号开头
+     * @param phoneSuffix 会员手机尾号
      * @param status 会员状态
      * @param cardType 会员卡类型
+     * @param after 上一页最后一条记录的ID
+     * @param size 每页条数
      * @param model 模型对象
      * @return 会员列表视图名称
      */
@@ -100,30 +111,64 @@ public class AdminController {
     public String listMembers(Model model, 
                              @RequestParam(required = false) String name,
                              @RequestParam(required = false) String phone,
+                             @RequestParam(required = false) String phoneSuffix,
                              @RequestParam(required = false) String status,
-                             @RequestParam(required = false) String cardType) {
-        // 创建查询参数Map
-        Map<String, Object> params = new HashMap<>();
-        params.put("name", name);
-        params.put("phone", phone);
-        params.put("status", status);
-        params.put("cardType", cardType);
-        
-        // 调用多条件搜索方法
-        List<User> members = userService.searchMembers(params);
+                             @RequestParam(required = false) String cardType,
+                             @RequestParam(required = false) Long after,
+                             @RequestParam(defaultValue = "20") int size) {
+        // 调用多条件分页搜索方法
+        CursorPage<User> page = userService.searchMembersPage(buildMemberSearchParams(name, phone, phoneSuffix, status, cardType), after, size, after == null);
         
         // 将搜索条件和结果添加到模型
-        model.addAttribute("members", members);
+        model.addAttribute("members", page.getItems());
+        model.addAttribute("page", page);
         model.addAttribute("name", name);
         model.addAttribute("phone", phone);
+        model.addAttribute("phoneSuffix", phoneSuffix);
         model.addAttribute("status", status);
         model.addAttribute("cardType", cardType);
-        
-        // 获取会员总数
-        model.addAttribute("totalMembers", userService.countMembers());
         return "admin/members";
     }
 
+    /**
+     * 按游标分页搜索会员（JSON接口）
+     * @param name 会员姓名
+     * @param phone 会员手机号开头
+     * @param phoneSuffix 会员手机尾号
+     * @param status 会员状态
+     * @param cardType 会员卡类型
+     * @param after 上一页最后一条记录的ID
+     * @param size 每页条数
+     * @param withTotal 是否统计总数
+     * @return 会员分页结果
+     */
+    @GetMapping("/admin/members/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseBody
+    public CursorPage<User> searchMembers(@RequestParam(required = false) String name,
+                                          @RequestParam(required = false) String phone,
+                                          @RequestParam(required = false) String phoneSuffix,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false) String cardType,
+                                          @RequestParam(required = false) Long after,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(defaultValue = "false") boolean withTotal) {
+        return userService.searchMembersPage(buildMemberSearchParams(name, phone, phoneSuffix, status, cardType), after, size, withTotal);
+    }
+
+    /**
+     * 创建会员搜索参数Map
+     */
+    private Map<String, Object> buildMemberSearchParams(String name, String phone, String phoneSuffix, String status, String cardType) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", name);
+        params.put("phone", phone);
+        params.put("phoneSuffix", phoneSuffix);
+        params.put("status", status);
+        params.put("cardType", cardType);
+        return params;
+    }
+
     /**
      * 禁用会员账号
      * @param id 会员ID
@@ -171,6 +216,33 @@ public class AdminController {
         return result;
     }
 
+    /**
+     * 从CSV文件批量导入会员
+     * @param file CSV文件，表头与会员导出文件一致
+     * @return JSON响应结果，包含成功、失败行数，失败行原因和导入速度
+     */
+    @PostMapping("/admin/members/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseBody
+    public Map<String, Object> importMembers(@RequestParam("file") MultipartFile file) {
+        Map<String, Object> result = new HashMap<>();
+        if (file == null || file.isEmpty()) {
+            result.put("success", false);
+            result.put("message", "请选择要导入的文件");
+            return result;
+        }
+        try {
+            MemberImportResult importResult = memberImportService.importMembers(file.getInputStream());
+            result.put("success", true);
+            result.put("message", "导入完成，成功 " + importResult.getImportedRows() + " 行，失败 " + importResult.getFailedRows() + " 行");
+            result.put("result", importResult);
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "会员导入失败: " + e.getMessage());
+        }
+        return result;
+    }
+
     /**
      * 更新会员信息
      */
@@ -218,34 +290,8 @@ public class AdminController {
     @GetMapping("/admin/coaches")
     @PreAuthorize("hasRole('ADMIN')")
     public String listCoaches(Model model) {
-        List<User> coaches = userService.findTrainers();
-        
-        // 创建一个包含所有必要字段的列表
-        List<Map<String, Object>> coachList = new ArrayList<>();
-        for (User user : coaches) {
-            Map<String, Object> coachInfo = new HashMap<>();
-            coachInfo.put("id", user.getId());
-            coachInfo.put("phone", user.getPhone());
-            coachInfo.put("name", user.getName() != null ? user.getName() : "未设置");
-            coachInfo.put("gender", user.getGender() != null ? user.getGender() : "未知");
-            coachInfo.put("avatar", user.getAvatar());
-            coachInfo.put("status", user.getStatus() != null ? user.getStatus() : "active");
-            
-            // 添加模板需要的额外字段
-            coachInfo.put("title", "健身教练"); // 默认职称
-            
-            // 使用注入的coachInfoMapper从coach_info表获取专长信息
-            CoachInfo details = coachInfoMapper.findByUserId(user.getId());
-            if (details != null && details.getSpecialty() != null) {
-                coachInfo.put("specialty", details.getSpecialty());
-            } else {
-                coachInfo.put("specialty", "未设置");
-            }
-            
-            coachList.add(coachInfo);
-        }
-        
-        model.addAttribute("coaches", coachList);
+        List<CoachView> coaches = userService.findTrainers();
+        model.addAttribute("coaches", coaches);
         return "admin/coaches";
     }
     
@@ -311,8 +357,7 @@ public class AdminController {
 
                 // 处理头像文件
                 if (avatar != null && !avatar.isEmpty()) {
-                    // 这里可以添加头像文件上传逻辑
-                    // 暂时不处理头像上传
+                    coachInfo.setAvatar(avatarStorageService.store(avatar));
                 }
 
                 // 保存教练详细信息
@@ -460,7 +505,7 @@ public class AdminController {
                 (coach.getGender() != null && !coach.getGender().trim().isEmpty() ? coach.getGender() : "未设置性别");
             dataMap.put("gender", coachGender);
             
-            dataMap.put("avatar", coachInfo != null && coachInfo.getAvatar() != null ? "/uploads/" + coachInfo.getAvatar() : "/static/images/default-avatar.png");
+            dataMap.put("avatar", coachInfo != null && coachInfo.getAvatar() != null ? coachInfo.getAvatar() : "/static/images/default-avatar.png");
             dataMap.put("status", coach.getStatus() != null ? coach.getStatus() : "active");
             dataMap.put("title", coachInfo != null && coachInfo.getSpecialty() != null ? coachInfo.getSpecialty() : "健身教练");
             dataMap.put("specialty", coachInfo != null && coachInfo.getSpecialty() != null ? coachInfo.getSpecialty() : "未设置");
@@ -482,7 +527,7 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     public String showCourses(Model model) {
         // 获取所有教练列表
-        List<User> trainers = userService.findTrainers();
+        List<CoachView> trainers = userService.findTrainers();
         // 获取所有可用课程
         List<com.gym.entity.Course> courses = courseService.getAvailableCourses();
         model.addAttribute("trainers", trainers);
@@ -490,5 +535,36 @@ public class AdminController {
         return "admin/courses";
     }
     
+    /**
+     * 获取登录凭证缓存的统计信息，用于调整缓存容量和过期时间
+     * @return 缓存条数、命中次数、未命中次数和命中率
+     */
+    @GetMapping("/admin/cache/credentials")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseBody
+    public Map<String, Object> credentialCacheStats() {
+        return credentialCache.stats();
+    }
+
+    /**
+     * 按预约表重建教练首页统计
+     * 统计表的初始数据由迁移脚本 V6 补齐，手工修改过预约数据后执行
+     * @return JSON响应结果，包含重建后的统计行数
+     */
+    @PostMapping("/admin/stats/coach/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseBody
+    public Map<String, Object> rebuildCoachStats() {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            result.putAll(coachStatsService.rebuildAll());
+            result.put("success", true);
+            result.put("message", "教练统计重建完成");
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "教练统计重建失败: " + e.getMessage());
+        }
+        return result;
+    }
 
-}
+}
\ No newline at end of file
@@ -1,17 +1,18 @@
 package com.gym.controller;
 
+import com.gym.dto.CourseMemberRow;
+import com.gym.dto.TrainerBookingRow;
 import com.gym.entity.Course;
 import com.gym.entity.User;
 import com.gym.entity.CoachInfo;
 import com.gym.entity.MemberInfo;
+import com.gym.security.GymUserDetails;
+import com.gym.service.AvatarStorageService;
 import com.gym.service.BookingService;
 import com.gym.service.CourseService;
 import com.gym.service.CoachInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -21,11 +22,8 @@ import com.gym.mapper.UserMapper;
 import com.gym.mapper.MemberInfoMapper;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.io.File;
-import java.io.IOException;
-import java.util.UUID;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -54,6 +52,9 @@ public class CoachController {
     @Autowired
     private MemberInfoMapper memberInfoMapper;
 
+    @Autowired
+    private AvatarStorageService avatarStorageService;
+
     /**
      * 显示教练首页
      * @return 教练首页视图名称
@@ -97,6 +98,7 @@ public class CoachController {
         int studentCount = bookingService.countUniqueStudentsByTrainerId(user.getId());
         
         // 添加数据到模型中
+        model.addAttribute("currentUser", user);
         model.addAttribute("courses", courses);
         model.addAttribute("courseCount", courseCount);
         model.addAttribute("todayBookingCount", todayBookingCount);
@@ -133,7 +135,7 @@ public class CoachController {
     @PreAuthorize("hasRole('TRAINER')")
     public String viewCourseMembers(@PathVariable Long courseId, Model model) {
         // 查询该课程的所有预约会员信息
-        List<Map<String, Object>> members = bookingService.getCourseMembers(courseId);
+        List<CourseMemberRow> members = bookingService.getCourseMembers(courseId);
         // 添加会员列表到模型中
         model.addAttribute("members", members);
         model.addAttribute("courseId", courseId);
@@ -144,26 +146,8 @@ public class CoachController {
      * 获取当前登录用户信息
      */
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("用户未登录");
-        }
-        
-        Object principal = authentication.getPrincipal();
-        String username;
-        if (principal instanceof UserDetails) {
-            username = ((UserDetails) principal).getUsername();
-        } else {
-            username = principal.toString();
-        }
-        
-        // 根据手机号（用户名）从数据库查询用户信息
-        User user = userMapper.findByPhone(username);
-        if (user == null) {
-            throw new RuntimeException("用户信息不存在");
-        }
-        
-        return user;
+        // 登录时已加载的用户信息保存在会话中，无需再查询数据库
+        return GymUserDetails.current().toUser();
     }
     
     /**
@@ -183,8 +167,8 @@ public class CoachController {
             coachInfo.setUserId(currentUser.getId());
             coachInfo.setUser(currentUser);
             coachInfo.setPhone(currentUser.getPhone());
-            // 使用手机号作为临时名称，因为User类没有name字段
-            coachInfo.setName(currentUser.getPhone());
+            // 会话中没有姓名时使用手机号作为临时名称
+            coachInfo.setName(currentUser.getName() != null ? currentUser.getName() : currentUser.getPhone());
         } else {
             // 确保设置用户对象，以便在更新时正确关联
             coachInfo.setUser(currentUser);
@@ -208,6 +192,7 @@ public class CoachController {
         
         // 保存或更新教练信息
         coachInfoService.saveOrUpdateCoachInfo(coachInfo);
+        GymUserDetails.refreshName(coachInfo.getName());
         
         redirectAttributes.addFlashAttribute("successMessage", "个人资料保存成功");
         return "redirect:/coach/profile";
@@ -259,68 +244,19 @@ public class CoachController {
                 coachInfo.setName(currentUser.getPhone());
             }
             
-            // 生成唯一文件名
-            String originalFilename = avatar.getOriginalFilename();
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String uniqueFilename = UUID.randomUUID().toString() + extension;
-            
-            // 设置文件保存路径
-            String savePath = "d:/ZSCzy/AI/gym03/gym-management-system/avatar/trainer";
-            File saveDir = new File(savePath);
-            if (!saveDir.exists()) {
-                saveDir.mkdirs();
-            }
-            
-            // 保存文件
-            File targetFile = new File(saveDir, uniqueFilename);
-            avatar.transferTo(targetFile);
-            
-            // 更新教练信息中的头像URL
-            String avatarUrl = "/avatar/trainer/" + uniqueFilename;
+            // 保存头像（按内容哈希去重，后台生成缩略图）
+            String avatarUrl = avatarStorageService.store(avatar);
             coachInfo.setAvatar(avatarUrl);
             coachInfoService.saveOrUpdateCoachInfo(coachInfo);
             
             redirectAttributes.addFlashAttribute("successMessage", "头像上传成功");
-        } catch (IOException e) {
-            e.printStackTrace();
-            redirectAttributes.addFlashAttribute("errorMessage", "头像上传失败：" + e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
             redirectAttributes.addFlashAttribute("errorMessage", "头像上传失败：" + e.getMessage());
         }
         
         return "redirect:/coach/profile";
     }
     
-    /**
-     * 预约信息扩展类，用于页面展示
-     */
-    private static class BookingInfo {
-        private Long id;
-        private String courseName;
-        private String memberName;
-        private String memberPhone;
-        private Long memberId;
-        private LocalDateTime bookingTime;
-        private String status;
-        
-        // getter and setter
-        public Long getId() { return id; }
-        public void setId(Long id) { this.id = id; }
-        public String getCourseName() { return courseName; }
-        public void setCourseName(String courseName) { this.courseName = courseName; }
-        public String getMemberName() { return memberName; }
-        public void setMemberName(String memberName) { this.memberName = memberName; }
-        public String getMemberPhone() { return memberPhone; }
-        public void setMemberPhone(String memberPhone) { this.memberPhone = memberPhone; }
-        public Long getMemberId() { return memberId; }
-        public void setMemberId(Long memberId) { this.memberId = memberId; }
-        public LocalDateTime getBookingTime() { return bookingTime; }
-        public void setBookingTime(LocalDateTime bookingTime) { this.bookingTime = bookingTime; }
-        public String getStatus() { return status; }
-        public void setStatus(String status) { this.status = status; }
-    }
-    
     /**
      * 查看教练所有课程的预约记录
      * 支持分页和筛选
@@ -336,82 +272,23 @@ public class CoachController {
         // 获取当前登录的教练用户
         User currentUser = getCurrentUser();
         
-        // 获取当前教练的所有课程
-        List<Course> courses = courseService.getMyCourses(currentUser.getId());
-        
-        // 从课程中提取课程ID列表
-        List<Long> courseIds = new ArrayList<>();
-        for (Course course : courses) {
-            courseIds.add(course.getId());
-        }
-        
-        // 构建预约信息列表
-        List<BookingInfo> allBookings = new ArrayList<>();
-        
-        // 查询每个课程的预约记录
-        for (Long courseId : courseIds) {
-            List<Map<String, Object>> courseBookings = bookingService.getCourseMembers(courseId);
-            
-            // 从已获取的courses列表中查找对应的课程
-            Course course = courses.stream()
-                .filter(c -> c.getId().equals(courseId))
-                .findFirst()
-                .orElse(null);
-            
-            if (course == null) continue; // 如果未找到对应课程，则跳过
-            
-            // 转换为BookingInfo对象
-            for (Map<String, Object> booking : courseBookings) {
-                BookingInfo bookingInfo = new BookingInfo();
-                // 安全的类型转换
-                Object bookingIdObj = booking.get("booking_id");
-                if (bookingIdObj != null) {
-                    bookingInfo.setId(bookingIdObj instanceof Long ? (Long) bookingIdObj : Long.valueOf(bookingIdObj.toString()));
-                }
-                
-                bookingInfo.setCourseName(course.getName());
-                
-                Object nameObj = booking.get("name");
-                bookingInfo.setMemberName(nameObj != null ? nameObj.toString() : "");
-                
-                Object phoneObj = booking.get("phone");
-                if (phoneObj != null) {
-                    bookingInfo.setMemberPhone(phoneObj.toString());
-                }
-                
-                Object userIdObj = booking.get("user_id");
-                if (userIdObj != null) {
-                    bookingInfo.setMemberId(userIdObj instanceof Long ? (Long) userIdObj : Long.valueOf(userIdObj.toString()));
-                }
-                
-                Object bookingTimeObj = booking.get("booking_time");
-                if (bookingTimeObj instanceof LocalDateTime) {
-                    bookingInfo.setBookingTime((LocalDateTime) bookingTimeObj);
-                }
-                
-                bookingInfo.setStatus("BOOKED"); // 默认状态为已预约
-                
-                // 应用筛选条件
-                boolean matchKeyword = keyword == null || keyword.isEmpty() || 
-                        bookingInfo.getMemberPhone().contains(keyword) || 
-                        bookingInfo.getCourseName().contains(keyword) ||
-                        bookingInfo.getMemberName().contains(keyword);
-                
-                boolean matchDate = date == null || date.isEmpty() || 
-                        bookingInfo.getBookingTime().toLocalDate().toString().equals(date);
-                
-                boolean matchStatus = status == null || status.isEmpty() || 
-                        bookingInfo.getStatus().equals(status);
-                
-                if (matchKeyword && matchDate && matchStatus) {
-                    allBookings.add(bookingInfo);
-                }
+        // 解析日期筛选条件，格式不正确时没有匹配的记录
+        LocalDate bookingDate = null;
+        boolean validDate = true;
+        if (date != null && !date.isEmpty()) {
+            try {
+                bookingDate = LocalDate.parse(date);
+            } catch (DateTimeParseException e) {
+                validDate = false;
             }
         }
+        String statusFilter = status != null && !status.isEmpty() ? status : null;
         
-        // 分页处理
+        // 分页处理，筛选和分页都在数据库中完成
         int pageSize = 10;
-        int totalItems = allBookings.size();
+        int totalItems = validDate
+                ? bookingService.countTrainerBookings(currentUser.getId(), keyword, bookingDate, statusFilter)
+                : 0;
         int totalPages = (int) Math.ceil((double) totalItems / pageSize);
         
         // 确保页码有效
@@ -419,12 +296,10 @@ public class CoachController {
         if (page > totalPages && totalPages > 0) page = totalPages;
         
         // 获取当前页的数据
-        int startIndex = (page - 1) * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, totalItems);
-        List<BookingInfo> currentPageBookings;
-        
-        if (startIndex < totalItems) {
-            currentPageBookings = allBookings.subList(startIndex, endIndex);
+        List<TrainerBookingRow> currentPageBookings;
+        if (totalItems > 0) {
+            currentPageBookings = bookingService.getTrainerBookings(currentUser.getId(), keyword, bookingDate,
+                    statusFilter, (page - 1) * pageSize, pageSize);
         } else {
             currentPageBookings = new ArrayList<>();
         }
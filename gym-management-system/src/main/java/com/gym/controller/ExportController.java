@@ -0,0 +1,78 @@
+package com.gym.controller;
+
+import com.gym.service.ExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 数据导出控制器
+ * 管理员下载会员、预约、会员卡的CSV文件，响应体边查询边写出，不在内存中组装整个文件
+ */
+@Controller
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * 导出会员
+     * @param response HTTP响应
+     */
+    @GetMapping("/admin/export/members")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportMembers(HttpServletResponse response) throws IOException {
+        prepare(response, "members");
+        long count = exportService.exportMembers(response.getOutputStream());
+        logger.info("导出会员 {} 行", count);
+    }
+
+    /**
+     * 导出预约记录
+     * @param response HTTP响应
+     */
+    @GetMapping("/admin/export/bookings")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportBookings(HttpServletResponse response) throws IOException {
+        prepare(response, "bookings");
+        long count = exportService.exportBookings(response.getOutputStream());
+        logger.info("导出预约记录 {} 行", count);
+    }
+
+    /**
+     * 导出会员卡
+     * @param response HTTP响应
+     */
+    @GetMapping("/admin/export/cards")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportCards(HttpServletResponse response) throws IOException {
+        prepare(response, "cards");
+        long count = exportService.exportCards(response.getOutputStream());
+        logger.info("导出会员卡 {} 行", count);
+    }
+
+    /**
+     * 设置下载响应头，文件名带导出日期；不设置Content-Length，响应以分块方式发送
+     */
+    private void prepare(HttpServletResponse response, String name) {
+        String fileName = name + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".csv";
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+    }
+}
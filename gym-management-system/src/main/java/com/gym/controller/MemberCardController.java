@@ -2,13 +2,10 @@ package com.gym.controller;
 
 import com.gym.entity.MembershipCard;
 import com.gym.entity.User;
-import com.gym.mapper.UserMapper;
+import com.gym.security.GymUserDetails;
 import com.gym.service.MembershipCardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,9 +19,6 @@ public class MemberCardController {
 
     @Autowired
     private MembershipCardService membershipCardService;
-    
-    @Autowired
-    private UserMapper userMapper;
 
     /**
      * 显示会员的会员卡页面
@@ -53,25 +47,7 @@ public class MemberCardController {
      * @return 当前登录的用户对象
      */
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("用户未登录");
-        }
-        
-        Object principal = authentication.getPrincipal();
-        String username;
-        if (principal instanceof UserDetails) {
-            username = ((UserDetails) principal).getUsername();
-        } else {
-            username = principal.toString();
-        }
-        
-        // 根据手机号（用户名）从数据库查询用户信息
-        User user = userMapper.findByPhone(username);
-        if (user == null) {
-            throw new RuntimeException("用户信息不存在");
-        }
-        
-        return user;
+        // 登录时已加载的用户信息保存在会话中，无需再查询数据库
+        return GymUserDetails.current().toUser();
     }
 }
\ No newline at end of file
@@ -1,20 +1,16 @@
 package com.gym.controller;
 
 import com.gym.dto.BookingDTO;
+import com.gym.dto.MemberDashboard;
 import com.gym.entity.Course;
 import com.gym.entity.MemberInfo;
-import com.gym.entity.MembershipCard;
 import com.gym.entity.User;
-import com.gym.mapper.UserMapper;
+import com.gym.security.GymUserDetails;
 import com.gym.service.BookingService;
 import com.gym.service.CourseService;
 import com.gym.service.MemberInfoService;
-import com.gym.service.MembershipCardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -23,10 +19,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpSession;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * 会员控制器
@@ -44,12 +40,6 @@ public class MemberController {
     @Autowired
     private BookingService bookingService;
     
-    @Autowired
-    private MembershipCardService membershipCardService;
-    
-    @Autowired
-    private UserMapper userMapper;
-    
     @Autowired
     private MemberInfoService memberInfoService;
 
@@ -76,50 +66,23 @@ public class MemberController {
             // 获取当前登录用户信息
             User currentUser = getCurrentUser();
             
-            // 查询会员详细信息
-            MemberInfo memberInfo = memberInfoService.getMemberInfoByUserId(currentUser.getId());
-            model.addAttribute("memberInfo", memberInfo);
+            // 欢迎语使用会话中保存的姓名，无需再查询会员信息
+            model.addAttribute("currentUser", currentUser);
             
-            // 查询会员卡数据
-            List<MembershipCard> cards = membershipCardService.findAllCards();
-            model.addAttribute("cards", cards);
-            
-            // 获取会员卡数量
-            int cardCount = cards.size();
-            model.addAttribute("cardCount", cardCount);
-            
-            // 获取今日预约数量（简单实现，实际可能需要根据日期筛选）
-            logger.info("查询用户ID {} 的预约数据", currentUser.getId());
-            List<BookingDTO> bookings = bookingService.getMyBookings(currentUser.getId());
-            logger.info("获取到 {} 条预约记录", bookings.size());
+            // 一次汇总查询会员卡数量、预约数量和近期预约
+            MemberDashboard dashboard = bookingService.getMemberDashboard(currentUser.getId());
+            model.addAttribute("cardCount", dashboard.getCardCount());
             
-            // 修改：今日预约数量直接使用我的预约的总数量
-            int todayBookingCount = bookings.size();
-            int completedCourseCount = 0;
-            int upcomingBookings = 0;
-            for (BookingDTO booking : bookings) {
-                if (booking.getScheduleTime().isBefore(LocalDateTime.now())) {
-                    completedCourseCount++;
-                }
-                if (booking.getScheduleTime().isAfter(LocalDateTime.now())) {
-                    upcomingBookings++;
-                }
-            }
-            logger.info("今日预约(总预约数): {}, 已完成: {}, 即将到来: {}", todayBookingCount, completedCourseCount, upcomingBookings);
-            model.addAttribute("todayBookingCount", todayBookingCount);
-            model.addAttribute("completedCourseCount", completedCourseCount);
-            model.addAttribute("upcomingBookings", upcomingBookings);
+            // 今日预约数量直接使用我的预约的总数量
+            model.addAttribute("todayBookingCount", dashboard.getTotalBookingCount());
+            model.addAttribute("completedCourseCount", dashboard.getCompletedCourseCount());
+            model.addAttribute("upcomingBookings", dashboard.getUpcomingBookingCount());
             
             // 计算健身天数（简单实现，可以根据实际需求调整）
-            model.addAttribute("fitnessDays", completedCourseCount);
+            model.addAttribute("fitnessDays", dashboard.getCompletedCourseCount());
             
-            // 获取近期预约列表（限制5个）
-            List<BookingDTO> recentBookings = bookings.stream()
-                    .filter(booking -> booking.getScheduleTime().isAfter(LocalDateTime.now()))
-                    .limit(5)
-                    .collect(Collectors.toList());
-            logger.info("近期预约列表大小: {}", recentBookings.size());
-            model.addAttribute("recentBookings", recentBookings);
+            // 近期预约列表（限制5个）
+            model.addAttribute("recentBookings", dashboard.getRecentBookings());
             
         } catch (Exception e) {
             logger.error("获取会员首页数据失败", e);
@@ -143,20 +106,22 @@ public class MemberController {
             // 获取所有可用课程
             List<Course> courses = courseService.getAvailableCourses();
             
-            // 获取用户已预约课程的ID列表
-            List<BookingDTO> userBookings = bookingService.getMyBookings(currentUser.getId());
-            List<Long> bookedCourseIds = userBookings.stream()
-                    .map(BookingDTO::getCourseId)
-                    .collect(Collectors.toList());
+            // 获取用户已预约课程的ID集合
+            Set<Long> bookedCourseIds = bookingService.getBookedCourseIds(currentUser.getId());
+            
+            // 获取用户正在候补的课程ID集合
+            Set<Long> waitlistedCourseIds = bookingService.getWaitlistedCourseIds(currentUser.getId());
             
             // 将数据添加到模型中
             model.addAttribute("courses", courses);
             model.addAttribute("bookedCourseIds", bookedCourseIds);
+            model.addAttribute("waitlistedCourseIds", waitlistedCourseIds);
         } catch (Exception e) {
             logger.error("获取课程列表失败", e);
             model.addAttribute("error", "获取课程列表失败: " + e.getMessage());
             model.addAttribute("courses", new ArrayList<>());
-            model.addAttribute("bookedCourseIds", new ArrayList<>());
+            model.addAttribute("bookedCourseIds", new HashSet<>());
+            model.addAttribute("waitlistedCourseIds", new HashSet<>());
         }
         return "member/courses";
     }
@@ -186,6 +151,34 @@ public class MemberController {
         return "redirect:/member/courses";
     }
 
+    /**
+     * 加入课程候补名单
+     * 有会员取消预约时系统按顺序自动为候补会员预约，无需反复刷新页面
+     * @param courseId 课程ID
+     * @param redirectAttributes 重定向属性，用于传递消息
+     * @return 重定向到课程列表页面
+     */
+    @PostMapping("waitlist/{courseId}")
+    @PreAuthorize("hasRole('MEMBER')")
+    public String joinWaitlist(@PathVariable Long courseId, RedirectAttributes redirectAttributes) {
+        try {
+            User currentUser = getCurrentUser();
+            int position = bookingService.joinWaitlist(currentUser.getId(), courseId);
+            if (position == 0) {
+                redirectAttributes.addFlashAttribute("success", "课程有空余名额，已为您直接预约");
+                logger.info("会员 {} 加入课程 {} 候补时有空余名额，已直接预约", currentUser.getId(), courseId);
+            } else {
+                redirectAttributes.addFlashAttribute("success",
+                        "已加入候补，当前排在第 " + position + " 位，有会员取消预约时将自动为您预约");
+                logger.info("会员 {} 加入课程 {} 候补，排在第 {} 位", currentUser.getId(), courseId, position);
+            }
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            logger.error("加入候补失败: {}", e.getMessage());
+        }
+        return "redirect:/member/courses";
+    }
+
     /**
      * 查看我的预约列表
      * @param model 模型对象，用于传递数据到视图
@@ -236,9 +229,8 @@ public class MemberController {
             // 获取当前登录用户信息
             User currentUser = getCurrentUser();
             
-            // 查询会员详细信息
-            MemberInfo memberInfo = memberInfoService.getMemberInfoByUserId(currentUser.getId());
-            model.addAttribute("memberInfo", memberInfo);
+            // 欢迎语使用会话中保存的姓名，无需再查询会员信息
+            model.addAttribute("currentUser", currentUser);
         } catch (Exception e) {
             model.addAttribute("error", "获取个人信息失败: " + e.getMessage());
         }
@@ -250,25 +242,7 @@ public class MemberController {
      * @return 当前登录的用户对象
      */
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("用户未登录");
-        }
-        
-        Object principal = authentication.getPrincipal();
-        String username;
-        if (principal instanceof UserDetails) {
-            username = ((UserDetails) principal).getUsername();
-        } else {
-            username = principal.toString();
-        }
-        
-        // 根据手机号（用户名）从数据库查询用户信息
-        User user = userMapper.findByPhone(username);
-        if (user == null) {
-            throw new RuntimeException("用户信息不存在");
-        }
-        
-        return user;
+        // 登录时已加载的用户信息保存在会话中，无需再查询数据库
+        return GymUserDetails.current().toUser();
     }
 }
\ No newline at end of file
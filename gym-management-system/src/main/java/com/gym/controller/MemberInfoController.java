@@ -1,12 +1,11 @@
 package com.gym.controller;
 
 import com.gym.entity.MemberInfo;
+import com.gym.security.GymUserDetails;
 import com.gym.service.MemberInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -35,9 +34,7 @@ public class MemberInfoController {
         
         // 如果会员信息不存在，初始化一个
         if (memberInfo == null) {
-            // 获取手机号（这里需要从认证信息中获取，简化处理）
-            String phone = SecurityContextHolder.getContext().getAuthentication().getName();
-            memberInfo = memberInfoService.initMemberInfo(userId, phone);
+            memberInfo = memberInfoService.initMemberInfo(userId, GymUserDetails.current().getPhone());
         }
         
         return ResponseEntity.ok(memberInfo);
@@ -58,6 +55,7 @@ public class MemberInfoController {
             memberInfo.setUserId(userId);
             
             MemberInfo updatedInfo = memberInfoService.updateMemberInfo(memberInfo);
+            GymUserDetails.refreshName(updatedInfo.getName());
             return ResponseEntity.ok(updatedInfo);
         } catch (Exception e) {
             e.printStackTrace();
@@ -72,30 +70,7 @@ public class MemberInfoController {
      */
     @PostMapping("/save")
     public ResponseEntity<MemberInfo> saveMemberInfo(@RequestParam Map<String, String> params) {
-        // 从安全上下文中获取当前认证的用户
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("用户未登录");
-        }
-        
-        // 获取当前登录用户的用户名（手机号）
-        String phone = authentication.getName();
-        
-        // 这里应该从User表获取用户ID
-        // 暂时使用一个临时解决方案：先尝试获取，如果不存在则创建新记录
-        Long userId = null;
-        
-        try {
-            // 尝试从memberInfo表获取用户ID（如果已经存在）
-            userId = memberInfoService.getUserIdByPhone(phone);
-        } catch (RuntimeException e) {
-            // 如果memberInfo表中没有记录，我们需要从User表获取用户ID
-            // 注意：这里应该注入UserService来获取用户ID
-            // 暂时使用一个模拟的用户ID获取方法
-            // 实际项目中应该修改MemberInfoService，添加通过手机号获取用户ID的方法
-            // 或者直接注入UserService
-            throw new RuntimeException("需要先创建用户记录才能保存会员信息");
-        }
+        Long userId = getCurrentUserId();
         
         try {
             // 手动创建MemberInfo对象并设置属性
@@ -106,10 +81,12 @@ public class MemberInfoController {
             if (memberInfoService.existsMemberInfo(userId)) {
                 // 更新
                 MemberInfo updatedInfo = memberInfoService.updateMemberInfo(memberInfo);
+                GymUserDetails.refreshName(updatedInfo.getName());
                 return ResponseEntity.ok(updatedInfo);
             } else {
                 // 新增
                 MemberInfo addedInfo = memberInfoService.addMemberInfo(memberInfo);
+                GymUserDetails.refreshName(addedInfo.getName());
                 return ResponseEntity.status(HttpStatus.CREATED).body(addedInfo);
             }
         } catch (Exception e) {
@@ -182,18 +159,7 @@ public class MemberInfoController {
      * @return 当前用户ID
      */
     private Long getCurrentUserId() {
-        // 从安全上下文中获取当前认证的用户
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("用户未登录");
-        }
-        
-        // 获取当前登录用户的用户名（手机号）
-        String phone = authentication.getName();
-        
-        // 正确的做法应该是从User表获取用户ID，而不是从memberInfo表
-        // 但由于我们没有直接的UserService引用，我们需要修改getUserIdByPhone方法的实现
-        // 暂时返回null，让saveMemberInfo方法可以继续执行，因为在保存时会设置正确的userId
-        return null;
+        // 登录时已加载的用户ID保存在会话中，无需再按手机号查询
+        return GymUserDetails.current().getId();
     }
 }
\ No newline at end of file
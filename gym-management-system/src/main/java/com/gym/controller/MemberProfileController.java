@@ -1,21 +1,18 @@
 package com.gym.controller;
 
 import com.gym.entity.MemberInfo;
+import com.gym.security.GymUserDetails;
+import com.gym.service.AvatarStorageService;
 import com.gym.service.MemberInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.io.File;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * 会员个人资料控制器
@@ -27,6 +24,9 @@ public class MemberProfileController {
 
     @Autowired
     private MemberInfoService memberInfoService;
+
+    @Autowired
+    private AvatarStorageService avatarStorageService;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     /**
@@ -54,6 +54,7 @@ public class MemberProfileController {
                 memberInfoService.addMemberInfo(memberInfo);
                 attributes.addFlashAttribute("message", "个人信息保存成功");
             }
+            GymUserDetails.refreshName(memberInfo.getName());
         } catch (Exception e) {
             e.printStackTrace();
             attributes.addFlashAttribute("error", "保存失败：" + e.getMessage());
@@ -127,17 +128,8 @@ public class MemberProfileController {
      * @return 当前用户ID
      */
     private Long getCurrentUserId() {
-        // 从安全上下文中获取当前认证的用户
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("用户未登录");
-        }
-        
-        // 获取当前登录用户的用户名（手机号）
-        String phone = authentication.getName();
-        
-        // 通过手机号获取用户ID
-        return memberInfoService.getUserIdByPhone(phone);
+        // 登录时已加载的用户ID保存在会话中，无需再查询数据库
+        return GymUserDetails.current().getId();
     }
     
     /**
@@ -163,33 +155,13 @@ public class MemberProfileController {
                 return "redirect:/member/profile";
             }
             
-            // 生成唯一文件名
-            String originalFilename = avatar.getOriginalFilename();
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String uniqueFilename = UUID.randomUUID().toString() + extension;
-            
-            // 设置文件保存路径（这里保存到项目根目录下的avatar目录）
-            String savePath = "d:/ZSCzy/AI/gym03/gym-management-system/avatar";
-            File saveDir = new File(savePath);
-            if (!saveDir.exists()) {
-                saveDir.mkdirs();
-            }
-            
-            // 保存文件
-            File targetFile = new File(saveDir, uniqueFilename);
-            avatar.transferTo(targetFile);
-            
-            // 更新会员信息中的头像URL
-            String avatarUrl = "/avatar/" + uniqueFilename;
+            // 保存头像（按内容哈希去重，后台生成缩略图）
+            String avatarUrl = avatarStorageService.store(avatar);
             memberInfo.setAvatar(avatarUrl);
             memberInfoService.updateMemberInfo(memberInfo);
             
             attributes.addFlashAttribute("success", "头像上传成功");
-        } catch (IOException e) {
-            e.printStackTrace();
-            attributes.addFlashAttribute("error", "头像上传失败：" + e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
             attributes.addFlashAttribute("error", "头像上传失败：" + e.getMessage());
         }
         
@@ -0,0 +1,53 @@
+package com.gym.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 预约导出行DTO
+ * 由booking表关联会员、课程和教练得到，导出时逐行从游标读取
+ */
+@Data
+public class BookingExportRow {
+
+    /**
+     * 预约ID
+     */
+    private Long id;
+
+    /**
+     * 会员手机号
+     */
+    private String memberPhone;
+
+    /**
+     * 会员姓名
+     */
+    private String memberName;
+
+    /**
+     * 课程名称
+     */
+    private String courseName;
+
+    /**
+     * 上课时间
+     */
+    private LocalDateTime scheduleTime;
+
+    /**
+     * 教练姓名
+     */
+    private String trainerName;
+
+    /**
+     * 预约时间
+     */
+    private LocalDateTime bookingTime;
+
+    /**
+     * 预约状态
+     */
+    private String status;
+}
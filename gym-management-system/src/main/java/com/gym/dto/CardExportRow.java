@@ -0,0 +1,63 @@
+package com.gym.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 会员卡导出行DTO
+ * 由membership_card表关联持卡会员得到，只包含会员持有的卡，不包含会员卡类型
+ */
+@Data
+public class CardExportRow {
+
+    /**
+     * 会员卡ID
+     */
+    private Long id;
+
+    /**
+     * 卡号
+     */
+    private String cardNumber;
+
+    /**
+     * 卡类型
+     */
+    private String cardType;
+
+    /**
+     * 持卡会员手机号
+     */
+    private String memberPhone;
+
+    /**
+     * 持卡会员姓名
+     */
+    private String memberName;
+
+    /**
+     * 开始日期
+     */
+    private LocalDate startDate;
+
+    /**
+     * 结束日期
+     */
+    private LocalDate endDate;
+
+    /**
+     * 剩余次数
+     */
+    private Integer remainingCount;
+
+    /**
+     * 总次数
+     */
+    private Integer totalCount;
+
+    /**
+     * 状态
+     */
+    private String status;
+}
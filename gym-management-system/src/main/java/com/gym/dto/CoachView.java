@@ -0,0 +1,51 @@
+package com.gym.dto;
+
+import lombok.Data;
+
+/**
+ * 教练列表展示DTO
+ * 由user表LEFT JOIN coach_info表一次查询得到，用于教练管理页和教练下拉框
+ */
+@Data
+public class CoachView {
+
+    /**
+     * 教练用户ID
+     */
+    private Long id;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 账号状态
+     */
+    private String status;
+
+    /**
+     * 姓名
+     */
+    private String name;
+
+    /**
+     * 性别
+     */
+    private String gender;
+
+    /**
+     * 头像
+     */
+    private String avatar;
+
+    /**
+     * 专业特长
+     */
+    private String specialty;
+
+    /**
+     * 职称
+     */
+    private String title = "健身教练";
+}
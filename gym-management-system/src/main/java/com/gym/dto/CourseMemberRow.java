@@ -0,0 +1,37 @@
+package com.gym.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 课程预约会员行DTO
+ * 用于教练查看指定课程的预约会员
+ */
+@Data
+public class CourseMemberRow {
+
+    /**
+     * 预约记录ID
+     */
+    private Long bookingId;
+
+    /**
+     * 会员用户ID
+     */
+    private Long userId;
+
+    /**
+     * 会员姓名
+     */
+    private String name;
+
+    /**
+     * 会员手机号
+     */
+    private String phone;
+
+    /**
+     * 预约时间
+     */
+    private LocalDateTime bookingTime;
+}
@@ -0,0 +1,32 @@
+package com.gym.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * 游标分页结果DTO
+ * 按主键游标（keyset）分页，下一页从nextCursor之后继续查询
+ */
+@Data
+public class CursorPage<T> {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> items;
+
+    /**
+     * 下一页游标（当前页最后一条记录的ID），没有下一页时为null
+     */
+    private Long nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 满足条件的记录总数，未统计时为null
+     */
+    private Long total;
+}
@@ -0,0 +1,31 @@
+package com.gym.dto;
+
+import lombok.Data;
+
+/**
+ * 管理员首页统计DTO
+ * 汇总管理员首页展示的各项数量
+ */
+@Data
+public class DashboardStats {
+
+    /**
+     * 会员数量
+     */
+    private int memberCount;
+
+    /**
+     * 活跃教练数量
+     */
+    private int coachCount;
+
+    /**
+     * 课程数量
+     */
+    private int courseCount;
+
+    /**
+     * 会员卡类型数量
+     */
+    private int cardTypeCount;
+}
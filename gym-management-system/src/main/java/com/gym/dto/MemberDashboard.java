@@ -0,0 +1,37 @@
+package com.gym.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * 会员首页统计DTO
+ * 汇总会员首页需要展示的数量和近期预约
+ */
+@Data
+public class MemberDashboard {
+
+    /**
+     * 会员本人的会员卡数量
+     */
+    private int cardCount;
+
+    /**
+     * 预约总数
+     */
+    private int totalBookingCount;
+
+    /**
+     * 已完成（上课时间已过）的课程数量
+     */
+    private int completedCourseCount;
+
+    /**
+     * 即将到来的预约数量
+     */
+    private int upcomingBookingCount;
+
+    /**
+     * 最近的即将到来的预约
+     */
+    private List<BookingDTO> recentBookings;
+}
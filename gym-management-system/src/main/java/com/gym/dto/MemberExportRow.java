@@ -0,0 +1,85 @@
+package com.gym.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 会员导出行DTO
+ * 由user表LEFT JOIN member_info表得到，导出时逐行从游标读取
+ */
+@Data
+public class MemberExportRow {
+
+    /**
+     * 会员用户ID
+     */
+    private Long id;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 姓名
+     */
+    private String name;
+
+    /**
+     * 账号状态
+     */
+    private String status;
+
+    /**
+     * 注册时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 性别
+     */
+    private String gender;
+
+    /**
+     * 出生日期
+     */
+    private LocalDate birthDate;
+
+    /**
+     * 办卡日期
+     */
+    private LocalDate cardIssueDate;
+
+    /**
+     * 身高（cm）
+     */
+    private BigDecimal height;
+
+    /**
+     * 体重（kg）
+     */
+    private BigDecimal weight;
+
+    /**
+     * 电子邮箱
+     */
+    private String email;
+
+    /**
+     * 地址
+     */
+    private String address;
+
+    /**
+     * 紧急联系人
+     */
+    private String emergencyContact;
+
+    /**
+     * 紧急联系电话
+     */
+    private String emergencyPhone;
+}
@@ -0,0 +1,70 @@
+package com.gym.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 会员批量导入结果DTO
+ * 包含导入行数、失败行的原因和导入速度
+ */
+@Data
+public class MemberImportResult {
+
+    /**
+     * 文件中的数据行数（不含表头和空行）
+     */
+    private int totalRows;
+
+    /**
+     * 成功导入的行数
+     */
+    private int importedRows;
+
+    /**
+     * 失败的行数
+     */
+    private int failedRows;
+
+    /**
+     * 导入耗时（毫秒）
+     */
+    private long elapsedMs;
+
+    /**
+     * 每秒导入的行数
+     */
+    private double rowsPerSecond;
+
+    /**
+     * 失败行及原因
+     */
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 失败行
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * 行号（表头为第1行）
+         */
+        private int line;
+
+        /**
+         * 手机号
+         */
+        private String phone;
+
+        /**
+         * 失败原因
+         */
+        private String message;
+    }
+}
@@ -0,0 +1,52 @@
+package com.gym.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 教练预约记录行DTO
+ * 用于教练查看其所有课程的预约记录
+ */
+@Data
+public class TrainerBookingRow {
+
+    /**
+     * 预约记录ID
+     */
+    private Long id;
+
+    /**
+     * 课程ID
+     */
+    private Long courseId;
+
+    /**
+     * 课程名称
+     */
+    private String courseName;
+
+    /**
+     * 会员用户ID
+     */
+    private Long memberId;
+
+    /**
+     * 会员姓名
+     */
+    private String memberName;
+
+    /**
+     * 会员手机号
+     */
+    private String memberPhone;
+
+    /**
+     * 预约时间
+     */
+    private LocalDateTime bookingTime;
+
+    /**
+     * 预约状态：BOOKED（已预约）、CANCELLED（已取消）
+     */
+    private String status;
+}
@@ -0,0 +1,41 @@
+package com.gym.dto;
+
+import lombok.Data;
+
+/**
+ * 用户登录凭证DTO
+ * 只包含登录认证需要的字段和页面显示用的姓名，用于登录路径的凭证缓存
+ */
+@Data
+public class UserCredential {
+
+    /**
+     * 用户ID
+     */
+    private Long id;
+
+    /**
+     * 手机号（登录用户名）
+     */
+    private String phone;
+
+    /**
+     * 加密后的密码
+     */
+    private String password;
+
+    /**
+     * 角色：member、trainer、admin
+     */
+    private String role;
+
+    /**
+     * 状态：active、disabled
+     */
+    private String status;
+
+    /**
+     * 显示姓名：优先取会员信息或教练信息中的姓名
+     */
+    private String name;
+}
@@ -0,0 +1,32 @@
+package com.gym.entity;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 课程候补实体类
+ * 对应数据库course_waitlist表
+ */
+@Data
+public class CourseWaitlist {
+
+    /**
+     * 候补ID，同一课程按ID先后排队
+     */
+    private Long id;
+
+    /**
+     * 课程ID（外键，关联course表）
+     */
+    private Long courseId;
+
+    /**
+     * 会员ID（外键，关联user表）
+     */
+    private Long userId;
+
+    /**
+     * 加入候补时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,6 @@
 package com.gym.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import java.util.Date;
 
@@ -21,8 +22,9 @@ public class User {
     private String phone;
     
     /**
-     * 密码
+     * 密码（只允许从请求中读取，不输出到JSON响应）
      */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     
     /**
@@ -1,9 +1,13 @@
 package com.gym.mapper;
 
+import com.gym.dto.BookingDTO;
+import com.gym.dto.CourseMemberRow;
+import com.gym.dto.MemberDashboard;
+import com.gym.dto.TrainerBookingRow;
 import com.gym.entity.Booking;
 import org.apache.ibatis.annotations.*;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -35,7 +39,7 @@ public interface BookingMapper {
      * @param id 预约记录ID
      */
     @Delete("DELETE FROM booking WHERE id = #{id}")
-    void deleteById(Long id);
+    int deleteById(Long id);
 
     /**
      * 检查指定用户是否已预约指定课程
@@ -46,18 +50,70 @@ public interface BookingMapper {
     @Select("SELECT COUNT(*) > 0 FROM booking WHERE user_id = #{userId} AND course_id = #{courseId}")
     boolean existsByUserIdAndCourseId(@Param("userId") Long userId, @Param("courseId") Long courseId);
     
+    /**
+     * 查询用户已预约的课程ID
+     * 只查询course_id一列，可由索引 idx_user_course 直接返回
+     * @param userId 用户ID
+     * @return 课程ID列表
+     */
+    @Select("SELECT course_id FROM booking WHERE user_id = #{userId}")
+    List<Long> selectCourseIdsByUserId(Long userId);
+
     /**
      * 查询用户的预约记录，关联课程和教练信息
      * @param userId 用户ID
-     * @return 预约记录列表
+     * @return 预约记录列表，直接映射为DTO
      */
-    @Select("SELECT b.id, b.course_id, c.name as course_name, c.schedule_time, c.trainer_id, u.name as trainer_name, b.booking_time " +
+    @Select("SELECT b.id, b.course_id, c.name as course_name, c.schedule_time, c.trainer_id, " +
+            "COALESCE(u.name, '') as trainer_name, b.booking_time " +
             "FROM booking b " +
             "JOIN course c ON b.course_id = c.id " +
             "JOIN user u ON c.trainer_id = u.id " +
             "WHERE b.user_id = #{userId} ORDER BY c.schedule_time ASC")
-    List<Map<String, Object>> selectUserBookingsWithCourseInfo(Long userId);
+    @Results(id = "bookingDTOMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "courseId", column = "course_id"),
+        @Result(property = "courseName", column = "course_name"),
+        @Result(property = "scheduleTime", column = "schedule_time"),
+        @Result(property = "trainerId", column = "trainer_id"),
+        @Result(property = "trainerName", column = "trainer_name"),
+        @Result(property = "bookingTime", column = "booking_time")
+    })
+    List<BookingDTO> selectUserBookingsWithCourseInfo(Long userId);
     
+    /**
+     * 统计会员首页的各项数量
+     * 一次聚合查询得到会员卡数量、预约总数、已完成和即将到来的预约数量
+     * @param userId 用户ID
+     * @param now 当前时间
+     * @return 会员首页统计，recentBookings为空
+     */
+    @Select("SELECT (SELECT COUNT(*) FROM membership_card mc WHERE mc.user_id = #{userId}) AS card_count, " +
+            "COUNT(b.id) AS total_booking_count, " +
+            "COALESCE(SUM(CASE WHEN c.schedule_time < #{now} THEN 1 ELSE 0 END), 0) AS completed_course_count, " +
+            "COALESCE(SUM(CASE WHEN c.schedule_time > #{now} THEN 1 ELSE 0 END), 0) AS upcoming_booking_count " +
+            "FROM booking b JOIN course c ON b.course_id = c.id " +
+            "WHERE b.user_id = #{userId}")
+    MemberDashboard selectDashboardCounts(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * 查询会员即将到来的预约，按上课时间升序
+     * @param userId 用户ID
+     * @param now 当前时间
+     * @param limit 最多返回条数
+     * @return 预约记录列表
+     */
+    @Select("SELECT b.id, b.course_id, c.name as course_name, c.schedule_time, c.trainer_id, " +
+            "COALESCE(u.name, '') as trainer_name, b.booking_time " +
+            "FROM booking b " +
+            "JOIN course c ON b.course_id = c.id " +
+            "JOIN user u ON c.trainer_id = u.id " +
+            "WHERE b.user_id = #{userId} AND c.schedule_time > #{now} " +
+            "ORDER BY c.schedule_time ASC LIMIT #{limit}")
+    @ResultMap("bookingDTOMap")
+    List<BookingDTO> selectUpcomingBookings(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                            @Param("limit") int limit);
+
     /**
      * 根据ID查询预约记录
      * @param id 预约ID
@@ -70,7 +126,7 @@ public interface BookingMapper {
      * 查询指定课程的所有预约会员信息
      * JOIN user表和member_info表获取会员详情
      * @param courseId 课程ID
-     * @return 预约会员信息列表
+     * @return 预约会员信息列表，直接映射为行对象
      */
     @Select("SELECT b.id as booking_id, u.id as user_id, " +
             "COALESCE(mi.name, u.name) as name, " +
@@ -80,24 +136,89 @@ public interface BookingMapper {
             "JOIN user u ON b.user_id = u.id " +
             "LEFT JOIN member_info mi ON b.user_id = mi.user_id " +
             "WHERE b.course_id = #{courseId}")
-    List<Map<String, Object>> selectCourseMembers(Long courseId);
-    
+    @Results(id = "courseMemberRowMap", value = {
+        @Result(property = "bookingId", column = "booking_id", id = true),
+        @Result(property = "userId", column = "user_id"),
+        @Result(property = "name", column = "name"),
+        @Result(property = "phone", column = "phone"),
+        @Result(property = "bookingTime", column = "booking_time")
+    })
+    List<CourseMemberRow> selectCourseMembers(Long courseId);
+
     /**
-     * 统计教练指定日期的预约数量
-     * @param trainerId 教练ID
-     * @param date 指定日期
-     * @return 预约数量
+     * 分页查询教练所有课程的预约记录
+     * 关键词、日期、状态条件和分页均在SQL中完成
+     * @param params 查询参数：trainerId、keywordPattern、dateFrom、dateTo、status、offset、limit
+     * @return 预约记录列表
      */
-    @Select("SELECT COUNT(*) FROM booking b JOIN course c ON b.course_id = c.id " +
-            "WHERE c.trainer_id = #{trainerId} AND DATE(c.schedule_time) = #{date}")
-    int countBookingsByTrainerAndDate(@Param("trainerId") Long trainerId, @Param("date") LocalDate date);
-    
+    @SelectProvider(type = BookingSqlProvider.class, method = "selectTrainerBookingsSql")
+    @Results(id = "trainerBookingRowMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "courseId", column = "course_id"),
+        @Result(property = "courseName", column = "course_name"),
+        @Result(property = "memberId", column = "member_id"),
+        @Result(property = "memberName", column = "member_name"),
+        @Result(property = "memberPhone", column = "member_phone"),
+        @Result(property = "bookingTime", column = "booking_time"),
+        @Result(property = "status", column = "status")
+    })
+    List<TrainerBookingRow> selectTrainerBookings(Map<String, Object> params);
+
     /**
-     * 统计预约过指定教练课程的唯一学员数量
-     * @param trainerId 教练ID
-     * @return 唯一学员数量
+     * 统计教练所有课程中符合条件的预约记录数量
+     * @param params 查询参数：trainerId、keywordPattern、dateFrom、dateTo、status
+     * @return 预约记录数量
      */
-    @Select("SELECT COUNT(DISTINCT b.user_id) FROM booking b JOIN course c ON b.course_id = c.id " +
-            "WHERE c.trainer_id = #{trainerId}")
-    int countUniqueStudentsByTrainer(@Param("trainerId") Long trainerId);
+    @SelectProvider(type = BookingSqlProvider.class, method = "countTrainerBookingsSql")
+    int countTrainerBookings(Map<String, Object> params);
+
+    /**
+     * SQL语句提供类
+     */
+    class BookingSqlProvider {
+        public String selectTrainerBookingsSql(Map<String, Object> params) {
+            StringBuilder sql = new StringBuilder("SELECT b.id, c.id AS course_id, c.name AS course_name, " +
+                    "u.id AS member_id, COALESCE(mi.name, u.name) AS member_name, " +
+                    "COALESCE(mi.phone, u.phone) AS member_phone, b.booking_time, " +
+                    "CASE WHEN b.status = 'cancelled' THEN 'CANCELLED' ELSE 'BOOKED' END AS status");
+            appendTrainerBookingFilters(sql, params);
+            sql.append(" ORDER BY c.id, b.id LIMIT #{limit} OFFSET #{offset}");
+            return sql.toString();
+        }
+
+        public String countTrainerBookingsSql(Map<String, Object> params) {
+            StringBuilder sql = new StringBuilder("SELECT COUNT(*)");
+            appendTrainerBookingFilters(sql, params);
+            return sql.toString();
+        }
+
+        /**
+         * 拼接教练预约记录的查询条件
+         * 从 idx_trainer_schedule 取教练的课程再按课程联查预约，
+         * 关键词按包含匹配（keywordPattern 由 SqlLikeUtils 生成），只在该教练课程的预约范围内过滤，不会扫描全表
+         */
+        private void appendTrainerBookingFilters(StringBuilder sql, Map<String, Object> params) {
+            sql.append(" FROM course c " +
+                    "JOIN booking b ON b.course_id = c.id " +
+                    "JOIN user u ON b.user_id = u.id " +
+                    "LEFT JOIN member_info mi ON b.user_id = mi.user_id " +
+                    "WHERE c.trainer_id = #{trainerId}");
+
+            if (params.get("keywordPattern") != null) {
+                sql.append(" AND (COALESCE(mi.phone, u.phone) LIKE #{keywordPattern}" +
+                        " OR c.name LIKE #{keywordPattern}" +
+                        " OR COALESCE(mi.name, u.name) LIKE #{keywordPattern})");
+            }
+
+            if (params.get("dateFrom") != null) {
+                sql.append(" AND b.booking_time >= #{dateFrom} AND b.booking_time < #{dateTo}");
+            }
+
+            if ("BOOKED".equals(params.get("status"))) {
+                sql.append(" AND (b.status IS NULL OR b.status <> 'cancelled')");
+            } else if ("CANCELLED".equals(params.get("status"))) {
+                sql.append(" AND b.status = 'cancelled'");
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.gym.mapper;
 
+import com.gym.dto.CoachView;
 import com.gym.entity.CoachInfo;
 import org.apache.ibatis.annotations.*;
 
+import java.util.List;
+
 @Mapper
 public interface CoachInfoMapper {
     @Insert("INSERT INTO coach_info (user_id, name, gender, birth_date, phone, specialty, certification, introduction, avatar) VALUES (#{userId}, #{name}, #{gender}, #{birthDate}, #{phone}, #{specialty}, #{certification}, #{introduction}, #{avatar})")
@@ -54,4 +57,23 @@ public interface CoachInfoMapper {
         @Result(property = "updatedAt", column = "updated_at")
     })
     CoachInfo findById(Long id);
+
+    /**
+     * 查询所有在职教练的花名册
+     * user表LEFT JOIN coach_info表，一次查询得到列表展示所需的全部字段
+     * @return 教练列表，按用户ID排序
+     */
+    @Select("SELECT u.id, u.phone, u.status, ci.name, ci.gender, ci.avatar, ci.specialty " +
+            "FROM user u LEFT JOIN coach_info ci ON ci.user_id = u.id " +
+            "WHERE u.role = 'trainer' AND u.status != 'disabled' ORDER BY u.id")
+    @Results(id = "coachViewMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "phone", column = "phone"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "name", column = "name"),
+        @Result(property = "gender", column = "gender"),
+        @Result(property = "avatar", column = "avatar"),
+        @Result(property = "specialty", column = "specialty")
+    })
+    List<CoachView> findRoster();
 }
\ No newline at end of file
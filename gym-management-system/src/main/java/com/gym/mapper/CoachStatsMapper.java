@@ -0,0 +1,183 @@
+package com.gym.mapper;
+
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 教练统计Mapper接口
+ * 维护教练每日预约统计表 coach_daily_stats 和教练学员表 trainer_student，
+ * 教练首页只读取这两张表中的少量行，不再对预约表做聚合查询
+ */
+@Mapper
+public interface CoachStatsMapper {
+
+    /**
+     * 课程所在日期的预约数量加一
+     * @param courseId 课程ID
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO coach_daily_stats (trainer_id, stat_date, booking_count) " +
+            "SELECT c.trainer_id, CAST(c.schedule_time AS DATE), 1 FROM course c WHERE c.id = #{courseId} " +
+            "ON DUPLICATE KEY UPDATE booking_count = booking_count + 1")
+    int incrementDailyBookings(@Param("courseId") Long courseId);
+
+    /**
+     * 课程所在日期的预约数量减一
+     * @param courseId 课程ID
+     * @return 影响的行数
+     */
+    @Update("UPDATE coach_daily_stats SET booking_count = booking_count - 1 " +
+            "WHERE trainer_id = (SELECT c.trainer_id FROM course c WHERE c.id = #{courseId}) " +
+            "AND stat_date = (SELECT CAST(c.schedule_time AS DATE) FROM course c WHERE c.id = #{courseId}) " +
+            "AND booking_count > 0")
+    int decrementDailyBookings(@Param("courseId") Long courseId);
+
+    /**
+     * 登记学员预约了课程所属教练的课程，已登记时预约次数加一
+     * @param courseId 课程ID
+     * @param userId 学员ID
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO trainer_student (trainer_id, user_id, booking_count) " +
+            "SELECT c.trainer_id, #{userId}, 1 FROM course c WHERE c.id = #{courseId} " +
+            "ON DUPLICATE KEY UPDATE booking_count = booking_count + 1")
+    int incrementStudentBookings(@Param("courseId") Long courseId, @Param("userId") Long userId);
+
+    /**
+     * 学员预约该教练课程的次数减一
+     * @param courseId 课程ID
+     * @param userId 学员ID
+     * @return 影响的行数
+     */
+    @Update("UPDATE trainer_student SET booking_count = booking_count - 1 " +
+            "WHERE trainer_id = (SELECT c.trainer_id FROM course c WHERE c.id = #{courseId}) " +
+            "AND user_id = #{userId} AND booking_count > 0")
+    int decrementStudentBookings(@Param("courseId") Long courseId, @Param("userId") Long userId);
+
+    /**
+     * 删除已没有预约的学员记录
+     * @param courseId 课程ID
+     * @param userId 学员ID
+     * @return 删除的行数
+     */
+    @Delete("DELETE FROM trainer_student " +
+            "WHERE trainer_id = (SELECT c.trainer_id FROM course c WHERE c.id = #{courseId}) " +
+            "AND user_id = #{userId} AND booking_count <= 0")
+    int deleteIdleStudent(@Param("courseId") Long courseId, @Param("userId") Long userId);
+
+    /**
+     * 查询教练指定日期的预约数量
+     * @param trainerId 教练ID
+     * @param date 日期
+     * @return 预约数量，没有统计行时返回null
+     */
+    @Select("SELECT booking_count FROM coach_daily_stats WHERE trainer_id = #{trainerId} AND stat_date = #{date}")
+    Integer selectDailyBookings(@Param("trainerId") Long trainerId, @Param("date") LocalDate date);
+
+    /**
+     * 统计教练的学员数量
+     * 只扫描主键 (trainer_id, user_id) 中该教练的部分
+     * @param trainerId 教练ID
+     * @return 学员数量
+     */
+    @Select("SELECT COUNT(*) FROM trainer_student WHERE trainer_id = #{trainerId}")
+    int countStudents(@Param("trainerId") Long trainerId);
+
+    /**
+     * 查询学员预约过的教练ID
+     * @param userId 学员ID
+     * @return 教练ID列表
+     */
+    @Select("SELECT trainer_id FROM trainer_student WHERE user_id = #{userId}")
+    List<Long> selectTrainerIdsByStudent(@Param("userId") Long userId);
+
+    /**
+     * 按预约表重新统计教练每日预约数量，已有统计行直接覆盖
+     * 在可重复读隔离级别下，INSERT ... SELECT 会给读到的预约记录加共享锁，
+     * 与预约、取消预约事务一样先锁预约记录、再写统计行，加锁顺序一致，不会丢失并发的增量更新
+     * @param trainerId 教练ID，为null时统计所有教练
+     */
+    @InsertProvider(type = CoachStatsSqlProvider.class, method = "upsertDailyStatsFromBookingsSql")
+    void upsertDailyStatsFromBookings(@Param("trainerId") Long trainerId);
+
+    /**
+     * 删除预约表中已没有对应预约的每日统计
+     * @param trainerId 教练ID，为null时处理所有教练
+     */
+    @DeleteProvider(type = CoachStatsSqlProvider.class, method = "deleteStaleDailyStatsSql")
+    void deleteStaleDailyStats(@Param("trainerId") Long trainerId);
+
+    /**
+     * 按预约表重新生成教练学员记录，已有记录直接覆盖预约次数
+     * @param trainerId 教练ID，为null时生成所有教练
+     */
+    @InsertProvider(type = CoachStatsSqlProvider.class, method = "upsertStudentsFromBookingsSql")
+    void upsertStudentsFromBookings(@Param("trainerId") Long trainerId);
+
+    /**
+     * 删除预约表中已没有对应预约的学员记录
+     * @param trainerId 教练ID，为null时处理所有教练
+     */
+    @DeleteProvider(type = CoachStatsSqlProvider.class, method = "deleteStaleStudentsSql")
+    void deleteStaleStudents(@Param("trainerId") Long trainerId);
+
+    /**
+     * 统计每日预约统计的行数
+     * @return 行数
+     */
+    @Select("SELECT COUNT(*) FROM coach_daily_stats")
+    int countDailyStatsRows();
+
+    /**
+     * 统计所有教练的学员记录行数
+     * @return 行数
+     */
+    @Select("SELECT COUNT(*) FROM trainer_student")
+    int countStudentRows();
+
+    /**
+     * 动态SQL提供类，重建统计时按是否指定教练拼接条件
+     */
+    class CoachStatsSqlProvider {
+        public String upsertDailyStatsFromBookingsSql(Map<String, Object> params) {
+            return "INSERT INTO coach_daily_stats (trainer_id, stat_date, booking_count) " +
+                    "SELECT c.trainer_id, CAST(c.schedule_time AS DATE), COUNT(*) " +
+                    "FROM booking b JOIN course c ON b.course_id = c.id" + trainerFilter(params, " WHERE", "c.trainer_id") +
+                    " GROUP BY c.trainer_id, CAST(c.schedule_time AS DATE) " +
+                    "ON DUPLICATE KEY UPDATE booking_count = VALUES(booking_count)";
+        }
+
+        public String deleteStaleDailyStatsSql(Map<String, Object> params) {
+            return "DELETE FROM coach_daily_stats WHERE NOT EXISTS (" +
+                    "SELECT 1 FROM booking b JOIN course c ON b.course_id = c.id " +
+                    "WHERE c.trainer_id = coach_daily_stats.trainer_id " +
+                    "AND CAST(c.schedule_time AS DATE) = coach_daily_stats.stat_date)" +
+                    trainerFilter(params, " AND", "trainer_id");
+        }
+
+        public String upsertStudentsFromBookingsSql(Map<String, Object> params) {
+            return "INSERT INTO trainer_student (trainer_id, user_id, booking_count) " +
+                    "SELECT c.trainer_id, b.user_id, COUNT(*) " +
+                    "FROM booking b JOIN course c ON b.course_id = c.id" + trainerFilter(params, " WHERE", "c.trainer_id") +
+                    " GROUP BY c.trainer_id, b.user_id " +
+                    "ON DUPLICATE KEY UPDATE booking_count = VALUES(booking_count)";
+        }
+
+        public String deleteStaleStudentsSql(Map<String, Object> params) {
+            return "DELETE FROM trainer_student WHERE NOT EXISTS (" +
+                    "SELECT 1 FROM booking b JOIN course c ON b.course_id = c.id " +
+                    "WHERE c.trainer_id = trainer_student.trainer_id AND b.user_id = trainer_student.user_id)" +
+                    trainerFilter(params, " AND", "trainer_id");
+        }
+
+        /**
+         * 指定了教练时拼接教练条件
+         */
+        private String trainerFilter(Map<String, Object> params, String keyword, String column) {
+            return params.get("trainerId") != null ? keyword + " " + column + " = #{trainerId}" : "";
+        }
+    }
+}
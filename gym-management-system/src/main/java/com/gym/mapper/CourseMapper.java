@@ -3,6 +3,7 @@ package com.gym.mapper;
 import com.gym.entity.Course;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -13,12 +14,14 @@ import java.util.List;
 public interface CourseMapper {
 
     /**
-     * 查询所有可用的课程
-     * 可用课程指：当前报名人数小于最大容量且上课时间未过期
-     * @return 可用课程列表
+     * 查询今天及以后的课程，用于内存课程目录
+     * 教练姓名取自coach_info，条件只依赖日期，不随每次查询变化
+     * @return 课程列表，按上课时间升序
      */
-    @Select("SELECT c.*, u.name as coachName FROM course c LEFT JOIN user u ON c.trainer_id = u.id WHERE c.current_count < c.max_capacity AND c.schedule_time > NOW()")
-    List<Course> selectAvailableCourses();
+    @Select("SELECT c.id, c.name, c.schedule_time, c.trainer_id, c.max_capacity, c.current_count, ci.name AS coach_name " +
+            "FROM course c LEFT JOIN coach_info ci ON ci.user_id = c.trainer_id " +
+            "WHERE c.schedule_time >= CURDATE() ORDER BY c.schedule_time, c.id")
+    List<Course> selectUpcomingCatalog();
 
     /**
      * 根据ID查询课程
@@ -36,6 +39,62 @@ public interface CourseMapper {
     @Update("UPDATE course SET current_count = #{currentCount} WHERE id = #{id}")
     void updateCurrentCount(@Param("id") Long id, @Param("currentCount") int currentCount);
 
+    /**
+     * 名额未满时占用一个名额（数据库模式的名额库存使用）
+     * 条件更新持有课程行锁直到事务结束，事务回滚时名额自动归还
+     * @param id 课程ID
+     * @return 更新行数，0表示课程已满或不存在
+     */
+    @Update("UPDATE course SET current_count = current_count + 1 WHERE id = #{id} AND current_count < max_capacity")
+    int claimSeat(Long id);
+
+    /**
+     * 归还一个名额（数据库模式的名额库存使用）
+     * @param id 课程ID
+     * @return 更新行数
+     */
+    @Update("UPDATE course SET current_count = current_count - 1 WHERE id = #{id} AND current_count > 0")
+    int releaseSeat(Long id);
+
+    /**
+     * 批量更新课程当前报名人数
+     * @param courses 课程列表，只使用id和currentCount
+     */
+    @UpdateProvider(type = CourseSqlProvider.class, method = "updateCurrentCountsSql")
+    void updateCurrentCounts(@Param("courses") List<Course> courses);
+
+    /**
+     * 按booking表的实际预约数校正课程当前报名人数
+     * @return 被校正的课程数量
+     */
+    @Update("UPDATE course c SET c.current_count = (SELECT COUNT(*) FROM booking b WHERE b.course_id = c.id) " +
+            "WHERE c.current_count <> (SELECT COUNT(*) FROM booking b WHERE b.course_id = c.id)")
+    int reconcileCurrentCounts();
+
+    /**
+     * 查询今天及以后课程的名额信息
+     * @return 课程列表，只包含id、maxCapacity和currentCount
+     */
+    @Select("SELECT id, max_capacity, current_count FROM course WHERE schedule_time >= CURDATE()")
+    List<Course> selectUpcomingSeatCounts();
+
+    /**
+     * 查询单个课程的名额信息，报名人数按booking表实时统计
+     * @param id 课程ID
+     * @return 课程对象，只包含id、maxCapacity和currentCount
+     */
+    @Select("SELECT c.id, c.max_capacity, (SELECT COUNT(*) FROM booking b WHERE b.course_id = c.id) AS current_count " +
+            "FROM course c WHERE c.id = #{id}")
+    Course selectSeatCountById(Long id);
+
+    /**
+     * 查询课程上课时间
+     * @param id 课程ID
+     * @return 上课时间，课程不存在时返回null
+     */
+    @Select("SELECT schedule_time FROM course WHERE id = #{id}")
+    LocalDateTime selectScheduleTimeById(Long id);
+
     /**
      * 插入新课程
      * @param course 课程对象
@@ -66,4 +125,25 @@ public interface CourseMapper {
      */
     @Update("UPDATE course SET name = #{name}, schedule_time = #{scheduleTime}, trainer_id = #{trainerId}, max_capacity = #{maxCapacity}, updated_at = #{updatedAt} WHERE id = #{id}")
     int updateCourse(Course course);
+
+    /**
+     * SQL语句提供类
+     */
+    class CourseSqlProvider {
+        public String updateCurrentCountsSql(@Param("courses") List<Course> courses) {
+            StringBuilder sql = new StringBuilder("UPDATE course SET current_count = CASE id");
+            for (int i = 0; i < courses.size(); i++) {
+                sql.append(" WHEN #{courses[").append(i).append("].id} THEN #{courses[").append(i).append("].currentCount}");
+            }
+            sql.append(" ELSE current_count END WHERE id IN (");
+            for (int i = 0; i < courses.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("#{courses[").append(i).append("].id}");
+            }
+            sql.append(")");
+            return sql.toString();
+        }
+    }
 }
\ No newline at end of file
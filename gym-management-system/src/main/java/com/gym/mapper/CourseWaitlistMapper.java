@@ -0,0 +1,67 @@
+package com.gym.mapper;
+
+import com.gym.entity.CourseWaitlist;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 课程候补Mapper接口
+ */
+@Mapper
+public interface CourseWaitlistMapper {
+
+    /**
+     * 加入候补，同一会员重复加入由唯一索引 idx_waitlist_course_user 拦截
+     * @param waitlist 候补对象
+     */
+    @Insert("INSERT INTO course_waitlist (course_id, user_id, created_at) VALUES (#{courseId}, #{userId}, #{createdAt})")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void insert(CourseWaitlist waitlist);
+
+    /**
+     * 锁定并查询课程候补队首
+     * 使用加锁读，并发取消预约时按顺序晋升，后一个事务等待前一个提交后读取到新的队首
+     * @param courseId 课程ID
+     * @return 队首候补，没有候补时返回null
+     */
+    @Select("SELECT * FROM course_waitlist WHERE course_id = #{courseId} ORDER BY id LIMIT 1 FOR UPDATE")
+    CourseWaitlist selectHeadForUpdate(Long courseId);
+
+    /**
+     * 删除候补
+     * @param id 候补ID
+     * @return 删除的行数
+     */
+    @Delete("DELETE FROM course_waitlist WHERE id = #{id}")
+    int deleteById(Long id);
+
+    /**
+     * 查询会员在课程候补中的位置
+     * @param courseId 课程ID
+     * @param userId 会员ID
+     * @return 排队位置，从1开始；不在候补中时返回0
+     */
+    @Select("SELECT COUNT(*) FROM course_waitlist w JOIN course_waitlist mine " +
+            "ON mine.course_id = w.course_id AND mine.user_id = #{userId} " +
+            "WHERE w.course_id = #{courseId} AND w.id <= mine.id")
+    int selectPosition(@Param("courseId") Long courseId, @Param("userId") Long userId);
+
+    /**
+     * 查询会员正在候补的课程ID
+     * @param userId 会员ID
+     * @return 课程ID列表
+     */
+    @Select("SELECT course_id FROM course_waitlist WHERE user_id = #{userId}")
+    List<Long> selectCourseIdsByUserId(Long userId);
+
+    /**
+     * 查询有候补会员且尚未开始的课程ID
+     * @param now 当前时间
+     * @return 课程ID列表
+     */
+    @Select("SELECT DISTINCT w.course_id FROM course_waitlist w JOIN course c ON c.id = w.course_id " +
+            "WHERE c.schedule_time > #{now}")
+    List<Long> selectUpcomingCourseIds(LocalDateTime now);
+}
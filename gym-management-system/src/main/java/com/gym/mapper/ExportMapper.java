@@ -0,0 +1,51 @@
+package com.gym.mapper;
+
+import com.gym.dto.BookingExportRow;
+import com.gym.dto.CardExportRow;
+import com.gym.dto.MemberExportRow;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+
+/**
+ * 数据导出Mapper接口
+ * 查询结果以游标返回，fetchSize = Integer.MIN_VALUE 让 MySQL 驱动逐行读取结果集而不是一次加载到内存，
+ * 游标只能在事务（同一连接）内遍历，读取期间该连接不能执行其他语句
+ */
+@Mapper
+public interface ExportMapper {
+
+    /**
+     * 按ID顺序读取全部会员及其会员信息
+     * @return 会员导出行游标
+     */
+    @Select("SELECT u.id, u.phone, COALESCE(m.name, u.name) AS name, u.status, u.created_at, " +
+            "m.gender, m.birth_date, m.card_issue_date, m.height, m.weight, m.email, m.address, " +
+            "m.emergency_contact, m.emergency_phone " +
+            "FROM user u LEFT JOIN member_info m ON m.user_id = u.id " +
+            "WHERE u.role = 'member' ORDER BY u.id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<MemberExportRow> selectMembers();
+
+    /**
+     * 按ID顺序读取全部预约
+     * @return 预约导出行游标
+     */
+    @Select("SELECT b.id, u.phone AS member_phone, u.name AS member_name, c.name AS course_name, c.schedule_time, " +
+            "t.name AS trainer_name, b.booking_time, b.status " +
+            "FROM booking b JOIN user u ON b.user_id = u.id JOIN course c ON b.course_id = c.id " +
+            "LEFT JOIN user t ON c.trainer_id = t.id ORDER BY b.id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<BookingExportRow> selectBookings();
+
+    /**
+     * 按ID顺序读取会员持有的全部会员卡
+     * @return 会员卡导出行游标
+     */
+    @Select("SELECT mc.id, mc.card_number, mc.card_type, u.phone AS member_phone, u.name AS member_name, " +
+            "mc.start_date, mc.end_date, mc.remaining_count, mc.total_count, mc.status " +
+            "FROM membership_card mc JOIN user u ON mc.user_id = u.id ORDER BY mc.id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<CardExportRow> selectCards();
+}
@@ -3,6 +3,8 @@ package com.gym.mapper;
 import com.gym.entity.MemberInfo;
 import org.apache.ibatis.annotations.*;
 
+import java.util.List;
+
 /**
  * 会员信息Mapper接口
  * 使用@Mapper注解标记，MyBatis会自动扫描并生成实现类
@@ -18,6 +20,14 @@ public interface MemberInfoMapper {
     @Select("SELECT * FROM member_info WHERE user_id = #{userId}")
     MemberInfo selectByUserId(Long userId);
 
+    /**
+     * 根据多个用户ID批量查询会员信息
+     * @param userIds 用户ID列表，不能为空
+     * @return 会员信息列表
+     */
+    @SelectProvider(type = MemberInfoSqlProvider.class, method = "selectByUserIdsSql")
+    List<MemberInfo> selectByUserIds(@Param("userIds") List<Long> userIds);
+
     /**
      * 根据手机号查询会员信息
      * @param phone 手机号
@@ -70,4 +80,21 @@ public interface MemberInfoMapper {
      */
     @Select("SELECT COUNT(*) FROM member_info WHERE user_id = #{userId}")
     boolean existsByUserId(Long userId);
+
+    /**
+     * SQL语句提供类
+     */
+    class MemberInfoSqlProvider {
+        public String selectByUserIdsSql(@Param("userIds") List<Long> userIds) {
+            StringBuilder sql = new StringBuilder("SELECT * FROM member_info WHERE user_id IN (");
+            for (int i = 0; i < userIds.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("#{userIds[").append(i).append("]}");
+            }
+            sql.append(")");
+            return sql.toString();
+        }
+    }
 }
\ No newline at end of file
@@ -47,9 +47,10 @@ public interface MembershipCardMapper {
     /**
      * 删除会员卡
      * @param id 会员卡ID
+     * @return 删除的行数
      */
     @Delete("DELETE FROM membership_card WHERE id = #{id}")
-    void delete(Long id);
+    int delete(Long id);
 
     /**
      * 查询激活状态的会员卡
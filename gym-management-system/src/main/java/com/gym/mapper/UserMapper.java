@@ -1,5 +1,7 @@
 package com.gym.mapper;
 
+import com.gym.dto.DashboardStats;
+import com.gym.dto.UserCredential;
 import com.gym.entity.User;
 import org.apache.ibatis.annotations.*;
 
@@ -21,6 +23,20 @@ public interface UserMapper {
     @Select("SELECT * FROM user WHERE phone = #{phone}")
     User findByPhone(String phone);
 
+    /**
+     * 根据手机号查询登录凭证
+     * 只查询登录认证需要的字段，另外按用户ID关联会员信息、教练信息取显示姓名
+     * @param phone 手机号
+     * @return 登录凭证
+     */
+    @Select("SELECT u.id, u.phone, u.password, u.role, u.status, " +
+            "COALESCE(mi.name, ci.name, u.name) AS name " +
+            "FROM user u " +
+            "LEFT JOIN member_info mi ON mi.user_id = u.id " +
+            "LEFT JOIN coach_info ci ON ci.user_id = u.id " +
+            "WHERE u.phone = #{phone}")
+    UserCredential findCredentialByPhone(String phone);
+
     /**
      * 插入用户信息
      * @param user 用户对象
@@ -56,9 +72,10 @@ public interface UserMapper {
     /**
      * 根据ID删除用户
      * @param id 用户ID
+     * @return 删除的行数
      */
     @Delete("DELETE FROM user WHERE id = #{id}")
-    void deleteById(Long id);
+    int deleteById(Long id);
 
     /**
      * 查询所有活跃的教练用户
@@ -83,6 +100,34 @@ public interface UserMapper {
     @Update("UPDATE user SET status = #{status} WHERE id = #{id}")
     void updateStatus(@Param("id") Long id, @Param("status") String status);
     
+    /**
+     * 更新用户密码
+     * @param id 用户ID
+     * @param password 加密后的密码
+     */
+    @Update("UPDATE user SET password = #{password} WHERE id = #{id}")
+    void updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    /**
+     * 查询未加密的旧密码
+     * BCrypt哈希都以$2开头，其余都是早期版本保存的明文
+     * @param limit 最多返回条数
+     * @return 用户ID、手机号和明文密码
+     */
+    @Select("SELECT id, phone, password FROM user WHERE password NOT LIKE '$2%' LIMIT #{limit}")
+    List<UserCredential> selectPlaintextPasswords(@Param("limit") int limit);
+
+    /**
+     * 密码未被修改时更新为新密码
+     * @param id 用户ID
+     * @param oldPassword 读取时的密码
+     * @param password 加密后的密码
+     * @return 更新行数，密码已被修改时为0
+     */
+    @Update("UPDATE user SET password = #{password} WHERE id = #{id} AND password = #{oldPassword}")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                                  @Param("password") String password);
+
     /**
      * 禁用用户
      * @param id 用户ID
@@ -91,14 +136,6 @@ public interface UserMapper {
         updateStatus(id, "disabled");
     }
 
-    /**
-     * 根据关键词模糊搜索会员
-     * @param keyword 搜索关键词
-     * @return 符合条件的会员列表
-     */
-    @Select("SELECT * FROM user WHERE role = 'member' AND phone LIKE CONCAT('%', #{keyword}, '%')")
-    List<User> searchMembersByKeyword(String keyword);
-    
     /**
      * 根据多条件搜索会员
      * @param params 搜索参数
@@ -107,30 +144,100 @@ public interface UserMapper {
     @SelectProvider(type = UserSqlProvider.class, method = "searchMembersSql")
     List<User> searchMembers(Map<String, Object> params);
     
+    /**
+     * 根据多条件按游标分页搜索会员
+     * @param params 搜索参数，after为上一页最后一条记录的ID，limit为本次最多返回的条数
+     * @return 符合条件的会员列表，按ID升序
+     */
+    @SelectProvider(type = UserSqlProvider.class, method = "searchMembersPageSql")
+    List<User> searchMembersPage(Map<String, Object> params);
+
+    /**
+     * 统计符合多条件搜索的会员数量
+     * @param params 搜索参数
+     * @return 会员数量
+     */
+    @SelectProvider(type = UserSqlProvider.class, method = "countMembersSql")
+    long countSearchMembers(Map<String, Object> params);
+    
+    /**
+     * 查询已被使用的手机号（用户表或会员信息表中已存在）
+     * @param phones 手机号列表
+     * @return 已存在的手机号
+     */
+    @SelectProvider(type = UserSqlProvider.class, method = "selectExistingPhonesSql")
+    List<String> selectExistingPhones(@Param("phones") List<String> phones);
+
     /**
      * SQL语句提供类
      */
     class UserSqlProvider {
+        public String selectExistingPhonesSql(@Param("phones") List<String> phones) {
+            StringBuilder in = new StringBuilder();
+            for (int i = 0; i < phones.size(); i++) {
+                if (i > 0) {
+                    in.append(", ");
+                }
+                in.append("#{phones[").append(i).append("]}");
+            }
+            return "SELECT phone FROM user WHERE phone IN (" + in + ")" +
+                    " UNION SELECT phone FROM member_info WHERE phone IN (" + in + ")";
+        }
+
         public String searchMembersSql(Map<String, Object> params) {
-            StringBuilder sql = new StringBuilder("SELECT * FROM user WHERE role = 'member'");
-            
-            if (params.get("name") != null && !params.get("name").toString().isEmpty()) {
-                sql.append(" AND id IN (SELECT user_id FROM member_info WHERE name LIKE CONCAT('%', #{name}, '%'))");
+            StringBuilder sql = new StringBuilder("SELECT u.* FROM user u");
+            appendMemberFilters(sql, params);
+            return sql.toString();
+        }
+
+        public String searchMembersPageSql(Map<String, Object> params) {
+            StringBuilder sql = new StringBuilder("SELECT u.* FROM user u");
+            appendMemberFilters(sql, params);
+            if (params.get("after") != null) {
+                sql.append(" AND u.id > #{after}");
             }
-            
-            if (params.get("phone") != null && !params.get("phone").toString().isEmpty()) {
-                sql.append(" AND phone LIKE CONCAT('%', #{phone}, '%')");
+            sql.append(" ORDER BY u.id LIMIT #{limit}");
+            return sql.toString();
+        }
+
+        public String countMembersSql(Map<String, Object> params) {
+            StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM user u");
+            appendMemberFilters(sql, params);
+            return sql.toString();
+        }
+
+        /**
+         * 拼接会员搜索条件，姓名和卡类型通过JOIN过滤
+         * 姓名和手机号只匹配前缀（namePattern、phonePattern 由 SqlLikeUtils 生成），
+         * 分别使用 member_info.idx_name 和 user.idx_phone 做范围扫描；
+         * 手机尾号（phoneSuffixPattern）无法使用索引，只在会员范围内逐行比较，供前台按尾号查找会员
+         */
+        private void appendMemberFilters(StringBuilder sql, Map<String, Object> params) {
+            if (hasText(params, "namePattern")) {
+                sql.append(" JOIN member_info mi ON mi.user_id = u.id AND mi.name LIKE #{namePattern}");
             }
             
-            if (params.get("status") != null && !params.get("status").toString().isEmpty()) {
-                sql.append(" AND status = #{status}");
+            if (hasText(params, "cardType")) {
+                sql.append(" JOIN (SELECT DISTINCT user_id FROM membership_card WHERE card_type = #{cardType}) mc ON mc.user_id = u.id");
             }
+
+            sql.append(" WHERE u.role = 'member'");
             
-            if (params.get("cardType") != null && !params.get("cardType").toString().isEmpty()) {
-                sql.append(" AND id IN (SELECT user_id FROM membership_card WHERE card_type = #{cardType})");
+            if (hasText(params, "phonePattern")) {
+                sql.append(" AND u.phone LIKE #{phonePattern}");
+            }
+
+            if (hasText(params, "phoneSuffixPattern")) {
+                sql.append(" AND u.phone LIKE #{phoneSuffixPattern}");
             }
             
-            return sql.toString();
+            if (hasText(params, "status")) {
+                sql.append(" AND u.status = #{status}");
+            }
+        }
+
+        private boolean hasText(Map<String, Object> params, String key) {
+            return params.get(key) != null && !params.get(key).toString().isEmpty();
         }
     }
     
@@ -149,16 +256,12 @@ public interface UserMapper {
     int countTrainers();
     
     /**
-     * 获取课程总数
-     * @return 课程数量
-     */
-    @Select("SELECT COUNT(*) FROM course")
-    int countCourses();
-    
-    /**
-     * 获取会员卡总数
-     * @return 会员卡数量
+     * 一次查询管理员首页的全部统计数量
+     * @return 会员数量、活跃教练数量、课程数量和会员卡类型数量
      */
-    @Select("SELECT COUNT(*) FROM membership_card")
-    int countCards();
+    @Select("SELECT (SELECT COUNT(*) FROM user WHERE role = 'member') AS member_count, " +
+            "(SELECT COUNT(*) FROM user WHERE role = 'trainer' AND status != 'disabled') AS coach_count, " +
+            "(SELECT COUNT(*) FROM course) AS course_count, " +
+            "(SELECT COUNT(*) FROM membership_card) AS card_type_count")
+    DashboardStats selectDashboardStats();
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.gym.security;
+
+import com.gym.dto.UserCredential;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * 登录用户信息
+ * 在Spring Security的User基础上携带用户ID、角色、状态和显示姓名，
+ * 登录时从数据库加载一次后保存在会话中，控制器无需每次请求都按手机号查询用户
+ */
+public class GymUserDetails extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private final Long id;
+
+    /**
+     * 角色：member、trainer、admin
+     */
+    private final String role;
+
+    /**
+     * 状态：active、disabled
+     */
+    private final String status;
+
+    /**
+     * 显示姓名，未填写个人资料时为null
+     */
+    private final String name;
+
+    public GymUserDetails(UserCredential credential, Collection<? extends GrantedAuthority> authorities) {
+        super(credential.getPhone(), credential.getPassword(), !"disabled".equals(credential.getStatus()),
+                true, true, true, authorities);
+        this.id = credential.getId();
+        this.role = credential.getRole();
+        this.status = credential.getStatus();
+        this.name = credential.getName();
+    }
+
+    /**
+     * 获取当前登录用户
+     * @return 当前登录用户信息
+     */
+    public static GymUserDetails current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof GymUserDetails)) {
+            throw new RuntimeException("用户未登录");
+        }
+        return (GymUserDetails) authentication.getPrincipal();
+    }
+
+    /**
+     * 更新会话中当前登录用户的显示姓名
+     * 会员、教练修改个人资料后调用，页面无需重新登录即可显示新姓名
+     * @param name 新姓名
+     */
+    public static void refreshName(String name) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        GymUserDetails details = current();
+        UserCredential credential = new UserCredential();
+        credential.setId(details.id);
+        credential.setPhone(details.getUsername());
+        // 认证成功后密码已被擦除，User不接受null密码
+        credential.setPassword(details.getPassword() != null ? details.getPassword() : "");
+        credential.setRole(details.role);
+        credential.setStatus(details.status);
+        credential.setName(name);
+        UsernamePasswordAuthenticationToken refreshed = new UsernamePasswordAuthenticationToken(
+                new GymUserDetails(credential, details.getAuthorities()),
+                authentication.getCredentials(), authentication.getAuthorities());
+        refreshed.setDetails(authentication.getDetails());
+        SecurityContextHolder.getContext().setAuthentication(refreshed);
+    }
+
+    /**
+     * 转换为用户实体，只包含会话中保存的字段，不包含密码
+     * @return 用户实体
+     */
+    public com.gym.entity.User toUser() {
+        com.gym.entity.User user = new com.gym.entity.User();
+        user.setId(id);
+        user.setPhone(getUsername());
+        user.setRole(role);
+        user.setStatus(status);
+        user.setName(name);
+        return user;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getPhone() {
+        return getUsername();
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
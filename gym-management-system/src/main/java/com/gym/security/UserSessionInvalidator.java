@@ -0,0 +1,38 @@
+package com.gym.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户会话失效处理
+ * 用户信息被修改或禁用后，使其已登录的会话过期，下次请求时重新登录以加载最新的用户信息
+ */
+@Component
+public class UserSessionInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSessionInvalidator.class);
+
+    private final SessionRegistry sessionRegistry;
+
+    public UserSessionInvalidator(SessionRegistry sessionRegistry) {
+        this.sessionRegistry = sessionRegistry;
+    }
+
+    /**
+     * 使指定用户的所有会话过期
+     * @param userId 用户ID
+     */
+    public void invalidate(Long userId) {
+        for (Object principal : sessionRegistry.getAllPrincipals()) {
+            if (principal instanceof GymUserDetails && userId.equals(((GymUserDetails) principal).getId())) {
+                for (SessionInformation session : sessionRegistry.getAllSessions(principal, false)) {
+                    session.expireNow();
+                }
+                logger.info("用户 {} 的登录信息已变更，会话已失效", userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gym.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+
+/**
+ * 头像存储服务接口
+ * 头像按内容哈希命名保存，相同图片只保存一份，并生成列表、个人资料两种尺寸的缩略图
+ */
+public interface AvatarStorageService {
+
+    /**
+     * 保存上传的头像
+     * 原图同步保存，缩略图在后台线程中生成
+     * @param file 上传的头像文件
+     * @return 个人资料尺寸头像的访问URL
+     */
+    String store(MultipartFile file);
+
+    /**
+     * 将头像URL转换为列表尺寸头像的URL
+     * @param avatarUrl 头像URL（store方法返回的URL）
+     * @return 列表尺寸头像的URL，非本服务保存的头像原样返回
+     */
+    String listUrl(String avatarUrl);
+
+    /**
+     * 根据头像文件名查找文件
+     * 缩略图尚未生成时返回原图
+     * @param fileName /avatar/ 之后的文件路径
+     * @return 文件路径，不存在时返回null
+     */
+    Path resolve(String fileName);
+
+    /**
+     * 判断文件名是否为按内容哈希命名的头像文件
+     * 这类文件内容不会变化，可以长期缓存
+     * @param fileName /avatar/ 之后的文件路径
+     * @return 是否按内容哈希命名
+     */
+    boolean isHashedName(String fileName);
+}
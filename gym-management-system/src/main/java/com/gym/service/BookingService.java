@@ -1,9 +1,12 @@
 package com.gym.service;
 
 import com.gym.dto.BookingDTO;
+import com.gym.dto.CourseMemberRow;
+import com.gym.dto.MemberDashboard;
+import com.gym.dto.TrainerBookingRow;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 /**
  * 预约服务接口
@@ -25,18 +28,55 @@ public interface BookingService {
      */
     List<BookingDTO> getMyBookings(Long userId);
 
+    /**
+     * 获取会员首页统计
+     * @param userId 用户ID
+     * @return 会员卡数量、预约数量和最近5条即将到来的预约
+     */
+    MemberDashboard getMemberDashboard(Long userId);
+
+    /**
+     * 获取用户已预约的课程ID
+     * @param userId 用户ID
+     * @return 课程ID集合
+     */
+    Set<Long> getBookedCourseIds(Long userId);
+
     /**
      * 取消预约
      * @param bookingId 预约记录ID
      */
     void cancelBooking(Long bookingId);
+
+    /**
+     * 加入课程候补名单
+     * 只有未开始且已满的课程可以候补，有会员取消预约时按加入顺序自动为候补会员预约；
+     * 加入时恰好空出名额的，名额按顺序转给候补队首
+     * @param userId 会员ID
+     * @param courseId 课程ID
+     * @return 加入后在候补中的位置，从1开始；返回0表示已直接为该会员预约
+     */
+    int joinWaitlist(Long userId, Long courseId);
+
+    /**
+     * 为有空余名额的课程晋升候补会员
+     * 处理取消预约与加入候补同时发生时漏掉的名额，以及管理员调大课程容量后空出的名额
+     */
+    void promoteWaitlists();
+
+    /**
+     * 获取会员正在候补的课程ID
+     * @param userId 会员ID
+     * @return 课程ID集合
+     */
+    Set<Long> getWaitlistedCourseIds(Long userId);
     
     /**
      * 查询指定课程的所有预约会员
      * @param courseId 课程ID
      * @return 预约会员信息列表
      */
-    List<Map<String, Object>> getCourseMembers(Long courseId);
+    List<CourseMemberRow> getCourseMembers(Long courseId);
     
     /**
      * 计算教练今日的预约数量
@@ -52,4 +92,26 @@ public interface BookingService {
      * @return 学员数量
      */
     int countUniqueStudentsByTrainerId(Long trainerId);
+
+    /**
+     * 分页查询教练所有课程的预约记录
+     * @param trainerId 教练ID
+     * @param keyword 关键词，模糊匹配会员手机号（含尾号）、课程名称或会员姓名，可为空
+     * @param date 预约日期，可为空
+     * @param status 预约状态（BOOKED/CANCELLED），可为空
+     * @param offset 起始位置
+     * @param limit 最多返回条数
+     * @return 预约记录列表
+     */
+    List<TrainerBookingRow> getTrainerBookings(Long trainerId, String keyword, LocalDate date, String status, int offset, int limit);
+
+    /**
+     * 统计教练所有课程中符合条件的预约记录数量
+     * @param trainerId 教练ID
+     * @param keyword 关键词，可为空
+     * @param date 预约日期，可为空
+     * @param status 预约状态，可为空
+     * @return 预约记录数量
+     */
+    int countTrainerBookings(Long trainerId, String keyword, LocalDate date, String status);
 }
\ No newline at end of file
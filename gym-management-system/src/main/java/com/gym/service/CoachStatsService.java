@@ -0,0 +1,62 @@
+package com.gym.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 教练统计服务接口
+ * 维护教练首页使用的预约统计，预约和取消预约时在同一事务中增量更新
+ */
+public interface CoachStatsService {
+
+    /**
+     * 记录一次预约
+     * @param userId 会员ID
+     * @param courseId 课程ID
+     */
+    void recordBooking(Long userId, Long courseId);
+
+    /**
+     * 记录一次取消预约
+     * @param userId 会员ID
+     * @param courseId 课程ID
+     */
+    void recordCancellation(Long userId, Long courseId);
+
+    /**
+     * 获取教练指定日期课程的预约数量
+     * @param trainerId 教练ID
+     * @param date 日期
+     * @return 预约数量
+     */
+    int countBookings(Long trainerId, LocalDate date);
+
+    /**
+     * 获取预约过教练课程的学员数量
+     * @param trainerId 教练ID
+     * @return 学员数量
+     */
+    int countStudents(Long trainerId);
+
+    /**
+     * 查询会员预约过的教练ID
+     * @param userId 会员ID
+     * @return 教练ID列表
+     */
+    List<Long> findTrainerIdsByStudent(Long userId);
+
+    /**
+     * 按预约表重建指定教练的统计
+     * 用于课程调整时间或教练、删除会员等无法增量更新的修改
+     * @param trainerIds 教练ID
+     */
+    void rebuildTrainers(Collection<Long> trainerIds);
+
+    /**
+     * 按预约表重建所有教练的统计
+     * @return 重建后的每日统计行数和学员记录行数
+     */
+    Map<String, Object> rebuildAll();
+}
@@ -0,0 +1,46 @@
+package com.gym.service;
+
+import com.gym.dto.DashboardStats;
+
+/**
+ * 管理员首页统计服务接口
+ * 缓存首页统计数量，并在会员、教练、课程、会员卡增删时增量更新
+ */
+public interface DashboardStatsService {
+
+    /**
+     * 获取首页统计
+     * @return 统计数量的副本
+     */
+    DashboardStats getStats();
+
+    /**
+     * 调整会员数量
+     * @param delta 变化量，新增为正数，删除为负数
+     */
+    void adjustMemberCount(int delta);
+
+    /**
+     * 调整活跃教练数量
+     * @param delta 变化量
+     */
+    void adjustCoachCount(int delta);
+
+    /**
+     * 调整课程数量
+     * @param delta 变化量
+     */
+    void adjustCourseCount(int delta);
+
+    /**
+     * 调整会员卡类型数量
+     * @param delta 变化量
+     */
+    void adjustCardTypeCount(int delta);
+
+    /**
+     * 丢弃缓存的统计，下次获取时重新查询
+     * 用于无法确定数量如何变化的修改，例如禁用用户
+     */
+    void invalidate();
+}
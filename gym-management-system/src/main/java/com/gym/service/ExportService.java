@@ -0,0 +1,36 @@
+package com.gym.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 数据导出服务接口
+ * 以CSV格式（UTF-8带BOM，Excel可直接打开）导出会员、预约和会员卡，
+ * 数据逐行从数据库游标读取并直接写入输出流，导出行数不影响内存占用
+ */
+public interface ExportService {
+
+    /**
+     * 导出会员（包含会员信息）
+     * @param out 输出流，方法返回前已刷新，由调用方关闭
+     * @return 导出的行数
+     * @throws IOException 写出失败（如客户端断开连接）
+     */
+    long exportMembers(OutputStream out) throws IOException;
+
+    /**
+     * 导出预约记录
+     * @param out 输出流，方法返回前已刷新，由调用方关闭
+     * @return 导出的行数
+     * @throws IOException 写出失败
+     */
+    long exportBookings(OutputStream out) throws IOException;
+
+    /**
+     * 导出会员持有的会员卡
+     * @param out 输出流，方法返回前已刷新，由调用方关闭
+     * @return 导出的行数
+     * @throws IOException 写出失败
+     */
+    long exportCards(OutputStream out) throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.gym.service;
+
+import com.gym.dto.MemberImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 会员批量导入服务接口
+ * 从CSV文件导入会员账号和会员信息，表头与会员导出文件一致，导出的文件可以直接导入
+ */
+public interface MemberImportService {
+
+    /**
+     * 导入会员
+     * 必须包含“手机号”“姓名”两列，“密码”为空时默认使用手机号后6位；
+     * 校验失败或写入失败的行记录在结果中，不影响其他行
+     * @param in CSV文件内容（UTF-8，可带BOM）
+     * @return 导入结果
+     * @throws IOException 读取文件失败
+     */
+    MemberImportResult importMembers(InputStream in) throws IOException;
+}
@@ -2,6 +2,9 @@ package com.gym.service;
 
 import com.gym.entity.MemberInfo;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 会员信息服务接口
  */
@@ -14,6 +17,13 @@ public interface MemberInfoService {
      */
     MemberInfo getMemberInfoByUserId(Long userId);
 
+    /**
+     * 根据多个用户ID批量获取会员信息
+     * @param userIds 用户ID集合
+     * @return 用户ID到会员信息的映射，没有会员信息的用户不在其中
+     */
+    Map<Long, MemberInfo> getMemberInfoMapByUserIds(Collection<Long> userIds);
+
     /**
      * 根据手机号获取会员信息
      * @param phone 手机号
@@ -0,0 +1,25 @@
+package com.gym.service;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 密码哈希服务接口
+ * 系统中唯一的密码编码器，BCrypt强度可配置，哈希计算在固定大小的线程池中执行
+ */
+public interface PasswordHashingService extends PasswordEncoder {
+
+    /**
+     * 异步计算密码哈希，用于批量导入等场景
+     * @param rawPassword 原始密码
+     * @return 加密后的密码
+     */
+    CompletableFuture<String> encodeAsync(CharSequence rawPassword);
+
+    /**
+     * 获取当前配置的BCrypt强度
+     * @return BCrypt强度（log2轮数）
+     */
+    int getStrength();
+}
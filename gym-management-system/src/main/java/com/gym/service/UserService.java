@@ -1,5 +1,7 @@
 package com.gym.service;
 
+import com.gym.dto.CoachView;
+import com.gym.dto.CursorPage;
 import com.gym.entity.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -31,12 +33,23 @@ public interface UserService {
 
     /**
      * 搜索会员
-     * 支持多条件搜索：姓名、手机号、状态、卡类型
+     * 支持多条件搜索：姓名、手机号（均按前缀匹配）、手机尾号、状态、卡类型
      * @param params 查询参数Map
      * @return 匹配的会员列表
      */
     List<User> searchMembers(Map<String, Object> params);
 
+    /**
+     * 按游标分页搜索会员
+     * 搜索条件同searchMembers，结果按会员ID升序
+     * @param params 查询参数Map
+     * @param after 上一页最后一条记录的ID，查询第一页时为null
+     * @param size 每页条数，超出范围时按默认值或上限处理
+     * @param withTotal 是否统计满足条件的总数
+     * @return 会员分页结果
+     */
+    CursorPage<User> searchMembersPage(Map<String, Object> params, Long after, int size, boolean withTotal);
+
     /**
      * 禁用用户
      * @param userId 用户ID
@@ -59,9 +72,10 @@ public interface UserService {
     
     /**
      * 获取所有教练用户
-     * @return 教练用户列表
+     * 一次联表查询得到教练的基本信息和详细信息
+     * @return 教练列表
      */
-    List<User> findTrainers();
+    List<CoachView> findTrainers();
     
     /**
      * 获取会员总数
@@ -0,0 +1,282 @@
+package com.gym.service.impl;
+
+import com.gym.service.AvatarStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 头像存储服务实现类
+ * 存储目录下的文件：
+ * {哈希}.{扩展名} 原图；{哈希}_profile.jpg 个人资料尺寸；{哈希}_list.jpg 列表尺寸。
+ * 上传时边写临时文件边计算SHA-256，已存在相同内容的图片时直接复用；
+ * 缩略图在单独的线程池中解码一次后生成两种尺寸，线程池繁忙时跳过，访问时回退到原图；
+ * 回退时重新提交生成任务（同一图片同时只有一个任务），线程池繁忙、生成失败或重启前未完成的缩略图会在之后的访问中补上，
+ * 无法解码的图片不再重试。
+ */
+@Service("avatarStorageService")
+public class AvatarStorageServiceImpl implements AvatarStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarStorageServiceImpl.class);
+
+    private static final List<String> EXTENSIONS = Arrays.asList("jpg", "jpeg", "png", "gif", "bmp");
+
+    private static final String URL_PREFIX = "/avatar/";
+
+    private static final String PROFILE_SUFFIX = "_profile.jpg";
+
+    private static final String LIST_SUFFIX = "_list.jpg";
+
+    /**
+     * 缩略图文件名：{哈希}_profile.jpg 或 {哈希}_list.jpg
+     */
+    private static final Pattern THUMBNAIL_NAME = Pattern.compile("([0-9a-f]{64})_(profile|list)\\.jpg");
+
+    /**
+     * 按内容哈希命名的文件名：原图或缩略图
+     */
+    private static final Pattern HASHED_NAME = Pattern.compile("[0-9a-f]{64}(_profile|_list)?\\.[a-z]+");
+
+    private final Path root;
+
+    private final int profileSize;
+
+    private final int listSize;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 已提交、尚未完成缩略图生成的图片哈希
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 无法解码的图片哈希，访问时不再重新生成
+     */
+    private final Set<String> undecodable = ConcurrentHashMap.newKeySet();
+
+    public AvatarStorageServiceImpl(@Value("${gym.avatar.root:avatar}") String root,
+                                    @Value("${gym.avatar.profile-size:256}") int profileSize,
+                                    @Value("${gym.avatar.list-size:64}") int listSize,
+                                    @Value("${gym.avatar.thumbnail-threads:2}") int threads) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.profileSize = profileSize;
+        this.listSize = listSize;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-thumbnail");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Files.createDirectories(this.root);
+        logger.info("头像存储目录: {}", this.root);
+    }
+
+    /**
+     * 保存上传的头像实现
+     */
+    @Override
+    public String store(MultipartFile file) {
+        String extension = extension(file.getOriginalFilename());
+        String contentType = file.getContentType();
+        if (!EXTENSIONS.contains(extension) || contentType == null || !contentType.startsWith("image/")) {
+            throw new RuntimeException("只支持 jpg、png、gif、bmp 格式的头像");
+        }
+
+        String hash;
+        Path original;
+        try {
+            Path temp = Files.createTempFile(root, "upload-", ".tmp");
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                hash = toHex(digest.digest());
+                original = root.resolve(hash + "." + extension);
+                if (!Files.exists(original)) {
+                    try {
+                        Files.move(temp, original, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // 其他请求同时上传了相同的图片
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("头像保存失败：" + e.getMessage(), e);
+        }
+
+        if (!Files.exists(root.resolve(hash + PROFILE_SUFFIX)) || !Files.exists(root.resolve(hash + LIST_SUFFIX))) {
+            scheduleThumbnails(hash, original);
+        }
+        return URL_PREFIX + hash + PROFILE_SUFFIX;
+    }
+
+    /**
+     * 将头像URL转换为列表尺寸头像的URL实现
+     */
+    @Override
+    public String listUrl(String avatarUrl) {
+        if (avatarUrl == null || !avatarUrl.startsWith(URL_PREFIX) || !avatarUrl.endsWith(PROFILE_SUFFIX)) {
+            return avatarUrl;
+        }
+        return avatarUrl.substring(0, avatarUrl.length() - PROFILE_SUFFIX.length()) + LIST_SUFFIX;
+    }
+
+    /**
+     * 根据头像文件名查找文件实现
+     */
+    @Override
+    public Path resolve(String fileName) {
+        Path path = root.resolve(fileName).normalize();
+        if (!path.startsWith(root)) {
+            return null;
+        }
+        if (Files.isRegularFile(path)) {
+            return path;
+        }
+        Matcher matcher = THUMBNAIL_NAME.matcher(fileName);
+        if (matcher.matches()) {
+            for (String extension : EXTENSIONS) {
+                Path original = root.resolve(matcher.group(1) + "." + extension);
+                if (Files.isRegularFile(original)) {
+                    scheduleThumbnails(matcher.group(1), original);
+                    return original;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断文件名是否为按内容哈希命名的头像文件实现
+     */
+    @Override
+    public boolean isHashedName(String fileName) {
+        return fileName != null && HASHED_NAME.matcher(fileName).matches();
+    }
+
+    /**
+     * 提交缩略图生成任务，同一图片已有任务或无法解码时跳过，线程池繁忙时等下次访问再提交
+     */
+    private void scheduleThumbnails(String hash, Path original) {
+        if (undecodable.contains(hash) || !pending.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    createThumbnails(hash, original);
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash);
+            logger.warn("缩略图任务过多，头像 {} 的缩略图在下次访问时重新生成", hash);
+        }
+    }
+
+    /**
+     * 解码原图一次，生成两种尺寸的缩略图
+     */
+    private void createThumbnails(String hash, Path original) {
+        try {
+            BufferedImage image = ImageIO.read(original.toFile());
+            if (image == null) {
+                undecodable.add(hash);
+                logger.warn("无法解码头像 {}，不生成缩略图", original.getFileName());
+                return;
+            }
+            writeThumbnail(image, profileSize, root.resolve(hash + PROFILE_SUFFIX));
+            writeThumbnail(image, listSize, root.resolve(hash + LIST_SUFFIX));
+        } catch (IOException e) {
+            logger.warn("生成头像 {} 的缩略图失败: {}", hash, e.getMessage());
+        }
+    }
+
+    /**
+     * 居中裁剪为正方形并缩放，透明背景填充为白色后保存为JPEG
+     */
+    private void writeThumbnail(BufferedImage image, int size, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+        int side = Math.min(image.getWidth(), image.getHeight());
+        int x = (image.getWidth() - side) / 2;
+        int y = (image.getHeight() - side) / 2;
+
+        BufferedImage thumbnail = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, size, size);
+            g.drawImage(image, 0, 0, size, size, x, y, x + side, y + side, null);
+        } finally {
+            g.dispose();
+        }
+
+        // 先写临时文件再重命名，避免读到写了一半的缩略图
+        Path temp = Files.createTempFile(root, "thumbnail-", ".tmp");
+        try {
+            ImageIO.write(thumbnail, "jpg", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String extension(String fileName) {
+        if (fileName == null || fileName.lastIndexOf('.') < 0) {
+            return "";
+        }
+        return fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,21 +1,36 @@
 package com.gym.service.impl;
 
+import com.gym.cache.SeatInventory;
 import com.gym.dto.BookingDTO;
+import com.gym.dto.CourseMemberRow;
+import com.gym.dto.MemberDashboard;
+import com.gym.dto.TrainerBookingRow;
 import com.gym.entity.Booking;
-import com.gym.entity.Course;
+import com.gym.entity.CourseWaitlist;
 import com.gym.mapper.BookingMapper;
 import com.gym.mapper.CourseMapper;
+import com.gym.mapper.CourseWaitlistMapper;
 import com.gym.service.BookingService;
-import com.gym.service.CourseService;
+import com.gym.service.CoachStatsService;
+import com.gym.utils.SqlLikeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 预约服务实现类
@@ -24,83 +39,103 @@ import java.util.Map;
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookingServiceImpl.class);
+
     @Autowired
     private BookingMapper bookingMapper;
 
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private CoachStatsService coachStatsService;
+
+    @Autowired
+    private CourseWaitlistMapper courseWaitlistMapper;
+
     @Autowired
     private CourseMapper courseMapper;
 
     @Autowired
-    private CourseService courseService;
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 会员首页展示的近期预约条数
+     */
+    private static final int DASHBOARD_RECENT_LIMIT = 5;
 
     /**
      * 预约课程实现
-     * 1. 检查课程是否已满
-     * 2. 检查是否已经预约过该课程
-     * 3. 创建预约记录
-     * 4. 更新课程当前报名人数
+     * 1. 从内存名额库存中占用名额，课程已满时直接拒绝，不访问数据库
+     * 2. 插入预约记录，重复预约由唯一索引 idx_user_course 拦截
+     * 3. 在同一事务中更新教练统计
+     * 事务回滚时名额自动归还，course.current_count 由名额库存异步批量回写
      */
     @Override
     @Transactional
     public void bookCourse(Long userId, Long courseId) {
-        // 检查课程是否已满
-        if (courseService.isFull(courseId)) {
+        // 占用名额（课程不存在时同样视为已满）
+        if (!seatInventory.tryAcquire(courseId)) {
             throw new RuntimeException("课程已满，无法预约");
         }
-    
-    // 检查是否已经预约过该课程（防重复预约）
-        if (bookingMapper.existsByUserIdAndCourseId(userId, courseId)) {
-            throw new RuntimeException("您已经预约过该课程");
-        }
 
         // 创建预约记录
         Booking booking = new Booking();
         booking.setUserId(userId);
         booking.setCourseId(courseId);
         booking.setBookingTime(LocalDateTime.now());
-        
-        // 插入预约记录
-        bookingMapper.insert(booking);
-
-        // 更新课程当前报名人数（+1）
-        Course course = courseMapper.selectById(courseId);
-        if (course != null) {
-            int newCount = course.getCurrentCount() + 1;
-            courseMapper.updateCurrentCount(courseId, newCount);
+
+        // 插入预约记录（防重复预约）
+        try {
+            bookingMapper.insert(booking);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("您已经预约过该课程");
         }
+        coachStatsService.recordBooking(userId, courseId);
     }
 
     /**
      * 获取用户的所有预约实现
-     * 联表查询预约记录和课程信息，返回DTO对象
+     * 联表查询预约记录和课程信息，由MyBatis直接映射为DTO对象
      */
     @Override
     public List<BookingDTO> getMyBookings(Long userId) {
-        // 联表查询用户的预约记录和课程信息
-        List<Map<String, Object>> bookingMaps = bookingMapper.selectUserBookingsWithCourseInfo(userId);
-        List<BookingDTO> bookingDTOs = new ArrayList<>();
-
-        // 将查询结果转换为DTO对象
-        for (Map<String, Object> map : bookingMaps) {
-            BookingDTO dto = new BookingDTO();
-            dto.setId(Long.valueOf(map.get("id").toString()));
-            dto.setCourseId(Long.valueOf(map.get("course_id").toString()));
-            dto.setCourseName(map.get("course_name").toString());
-            dto.setScheduleTime((LocalDateTime) map.get("schedule_time"));
-            dto.setTrainerId(Long.valueOf(map.get("trainer_id").toString()));
-            dto.setTrainerName(map.get("trainer_name") != null ? map.get("trainer_name").toString() : "");
-            dto.setBookingTime((LocalDateTime) map.get("booking_time"));
-            bookingDTOs.add(dto);
+        return bookingMapper.selectUserBookingsWithCourseInfo(userId);
+    }
+
+    /**
+     * 获取会员首页统计实现
+     * 一次聚合查询统计数量，再按上课时间取最近的即将到来的预约，不加载全部预约记录
+     */
+    @Override
+    public MemberDashboard getMemberDashboard(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        MemberDashboard dashboard = bookingMapper.selectDashboardCounts(userId, now);
+        if (dashboard == null) {
+            dashboard = new MemberDashboard();
         }
+        if (dashboard.getUpcomingBookingCount() > 0) {
+            dashboard.setRecentBookings(bookingMapper.selectUpcomingBookings(userId, now, DASHBOARD_RECENT_LIMIT));
+        } else {
+            dashboard.setRecentBookings(new ArrayList<>());
+        }
+        return dashboard;
+    }
 
-        return bookingDTOs;
+    /**
+     * 获取用户已预约的课程ID实现
+     * 单列查询，结果放入HashSet便于页面按课程逐个判断
+     */
+    @Override
+    public Set<Long> getBookedCourseIds(Long userId) {
+        return new HashSet<>(bookingMapper.selectCourseIdsByUserId(userId));
     }
 
     /**
      * 取消预约实现
      * 1. 先查询预约记录获取课程ID
-     * 2. 删除预约记录
-     * 3. 更新课程当前报名人数（-1）
+     * 2. 删除预约记录，并在同一事务中更新教练统计
+     * 3. 课程有候补时名额直接转给候补队首，否则事务提交后归还名额
      */
     @Override
     @Transactional
@@ -110,44 +145,189 @@ public class BookingServiceImpl implements BookingService {
         if (booking == null) {
             throw new RuntimeException("预约记录不存在");
         }
-        
-        Long courseId = booking.getCourseId();
 
-        // 删除预约记录
-        bookingMapper.deleteById(bookingId);
+        // 删除预约记录，并发取消时只有删除成功的一方释放名额
+        if (bookingMapper.deleteById(bookingId) > 0) {
+            coachStatsService.recordCancellation(booking.getUserId(), booking.getCourseId());
+            if (promoteWaitlist(booking.getCourseId()) == null) {
+                seatInventory.release(booking.getCourseId());
+            }
+        }
+    }
 
-        // 更新课程当前报名人数（-1）
-        Course course = courseMapper.selectById(courseId);
-        if (course != null) {
-            int newCount = Math.max(0, course.getCurrentCount() - 1); // 确保人数不为负数
-            courseMapper.updateCurrentCount(courseId, newCount);
+    /**
+     * 加入课程候补名单实现
+     * 课程未满时要求直接预约；重复加入由唯一索引拦截。
+     * 满员检查与插入之间可能有预约被取消、名额已归还（此时候补名单为空，没有人被晋升），
+     * 因此插入后再尝试占用名额，占到时立即按顺序晋升队首，无人可晋升时归还名额
+     */
+    @Override
+    @Transactional
+    public int joinWaitlist(Long userId, Long courseId) {
+        LocalDateTime scheduleTime = courseMapper.selectScheduleTimeById(courseId);
+        if (scheduleTime == null) {
+            throw new RuntimeException("课程不存在");
+        }
+        if (!scheduleTime.isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("课程已开始，无法候补");
+        }
+        if (!seatInventory.isFull(courseId)) {
+            throw new RuntimeException("课程尚有名额，请直接预约");
+        }
+        if (bookingMapper.existsByUserIdAndCourseId(userId, courseId)) {
+            throw new RuntimeException("您已经预约过该课程");
+        }
+
+        CourseWaitlist waitlist = new CourseWaitlist();
+        waitlist.setCourseId(courseId);
+        waitlist.setUserId(userId);
+        waitlist.setCreatedAt(LocalDateTime.now());
+        try {
+            courseWaitlistMapper.insert(waitlist);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("您已在该课程的候补名单中");
+        }
+        if (seatInventory.tryAcquire(courseId)) {
+            Long promoted = promoteWaitlist(courseId);
+            if (promoted == null) {
+                seatInventory.release(courseId);
+            } else if (promoted.equals(userId)) {
+                return 0;
+            }
+        }
+        return courseWaitlistMapper.selectPosition(courseId, userId);
+    }
+
+    /**
+     * 为有空余名额的课程晋升候补会员实现
+     * 每门课程每次晋升一位会员，各自在单独的事务中执行
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${gym.waitlist.sweep-interval-ms:30000}")
+    public void promoteWaitlists() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (Long courseId : courseWaitlistMapper.selectUpcomingCourseIds(LocalDateTime.now())) {
+            Long promoted;
+            do {
+                if (seatInventory.isFull(courseId)) {
+                    break;
+                }
+                promoted = transaction.execute(status -> {
+                    if (!seatInventory.tryAcquire(courseId)) {
+                        return null;
+                    }
+                    Long userId = promoteWaitlist(courseId);
+                    if (userId == null) {
+                        seatInventory.release(courseId);
+                    }
+                    return userId;
+                });
+                if (promoted != null) {
+                    logger.info("课程 {} 有空余名额，已为候补会员 {} 预约", courseId, promoted);
+                }
+            } while (promoted != null);
         }
     }
+
+    /**
+     * 获取会员正在候补的课程ID实现
+     */
+    @Override
+    public Set<Long> getWaitlistedCourseIds(Long userId) {
+        return new HashSet<>(courseWaitlistMapper.selectCourseIdsByUserId(userId));
+    }
+
+    /**
+     * 将已占用的名额转给候补队首
+     * 在调用方的事务中执行，队首行加锁读取，并发取消时依次晋升不同的会员；
+     * 候补期间已自行预约的会员（包括与晋升同时预约、被唯一索引拦截的）直接移出候补，继续检查下一位，
+     * 不会让调用方的事务回滚
+     * @return 获得名额的会员ID，没有候补会员获得名额时返回null
+     */
+    private Long promoteWaitlist(Long courseId) {
+        CourseWaitlist head;
+        while ((head = courseWaitlistMapper.selectHeadForUpdate(courseId)) != null) {
+            if (courseWaitlistMapper.deleteById(head.getId()) == 0) {
+                return null;
+            }
+            if (bookingMapper.existsByUserIdAndCourseId(head.getUserId(), courseId)) {
+                continue;
+            }
+            Booking booking = new Booking();
+            booking.setUserId(head.getUserId());
+            booking.setCourseId(courseId);
+            booking.setBookingTime(LocalDateTime.now());
+            try {
+                bookingMapper.insert(booking);
+            } catch (DuplicateKeyException e) {
+                continue;
+            }
+            coachStatsService.recordBooking(head.getUserId(), courseId);
+            return head.getUserId();
+        }
+        return null;
+    }
     
     /**
      * 查询指定课程的所有预约会员实现
      * 直接调用Mapper层方法获取JOIN后的会员信息
      */
     @Override
-    public List<Map<String, Object>> getCourseMembers(Long courseId) {
+    public List<CourseMemberRow> getCourseMembers(Long courseId) {
         return bookingMapper.selectCourseMembers(courseId);
     }
     
     /**
      * 计算教练今日的预约数量实现
-     * 调用Mapper层方法统计指定日期的预约数量
+     * 读取教练每日预约统计中的一行
      */
     @Override
     public int countTodayBookingsByTrainerId(Long trainerId, LocalDate date) {
-        return bookingMapper.countBookingsByTrainerAndDate(trainerId, date);
+        return coachStatsService.countBookings(trainerId, date);
     }
     
     /**
      * 计算预约过该教练课程的唯一学员数量实现
-     * 调用Mapper层方法统计唯一学员数量
+     * 统计教练学员表中该教练的行数
      */
     @Override
     public int countUniqueStudentsByTrainerId(Long trainerId) {
-        return bookingMapper.countUniqueStudentsByTrainer(trainerId);
+        return coachStatsService.countStudents(trainerId);
+    }
+
+    /**
+     * 分页查询教练所有课程的预约记录实现
+     * 一条SQL完成所有课程的筛选和分页
+     */
+    @Override
+    public List<TrainerBookingRow> getTrainerBookings(Long trainerId, String keyword, LocalDate date, String status, int offset, int limit) {
+        Map<String, Object> params = buildTrainerBookingParams(trainerId, keyword, date, status);
+        params.put("offset", offset);
+        params.put("limit", limit);
+        return bookingMapper.selectTrainerBookings(params);
+    }
+
+    /**
+     * 统计教练所有课程中符合条件的预约记录数量实现
+     */
+    @Override
+    public int countTrainerBookings(Long trainerId, String keyword, LocalDate date, String status) {
+        return bookingMapper.countTrainerBookings(buildTrainerBookingParams(trainerId, keyword, date, status));
+    }
+
+    /**
+     * 创建教练预约记录查询参数
+     * 日期条件转换为半开区间 [当天0点, 次日0点)，以便使用预约时间上的索引；关键词转换为包含匹配模式
+     */
+    private Map<String, Object> buildTrainerBookingParams(Long trainerId, String keyword, LocalDate date, String status) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("trainerId", trainerId);
+        params.put("keywordPattern", SqlLikeUtils.containsPattern(keyword));
+        params.put("status", status);
+        if (date != null) {
+            params.put("dateFrom", date.atStartOfDay());
+            params.put("dateTo", date.plusDays(1).atStartOfDay());
+        }
+        return params;
     }
 }
\ No newline at end of file
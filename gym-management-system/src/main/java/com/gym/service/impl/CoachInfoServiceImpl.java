@@ -1,8 +1,8 @@
 package com.gym.service.impl;
 
+import com.gym.cache.CredentialCache;
 import com.gym.entity.CoachInfo;
 import com.gym.entity.User;
-import java.util.List;
 import com.gym.mapper.CoachInfoMapper;
 import com.gym.mapper.UserMapper;
 import com.gym.service.CoachInfoService;
@@ -23,6 +23,9 @@ public class CoachInfoServiceImpl implements CoachInfoService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private CredentialCache credentialCache;
+    
     @Override
     public CoachInfo getCoachInfoByUserId(Long userId) {
         return coachInfoMapper.findByUserId(userId);
@@ -40,6 +43,8 @@ public class CoachInfoServiceImpl implements CoachInfoService {
             // 创建新记录
             coachInfoMapper.insert(coachInfo);
         }
+        // 登录凭证中缓存了显示姓名
+        credentialCache.invalidateById(coachInfo.getUserId());
     }
     
     @Transactional
@@ -63,34 +68,21 @@ public class CoachInfoServiceImpl implements CoachInfoService {
             return false;
         }
         
-        // 加密新密码并更新
-        updateUserPassword(userId, passwordEncoder.encode(newPassword));
+        // 加密新密码并更新，同时失效登录凭证缓存
+        userMapper.updatePassword(userId, passwordEncoder.encode(newPassword));
+        credentialCache.invalidate(user.getPhone());
         
         return true;
     }
     
     /**
-     * 根据ID获取用户
+     * 根据ID获取教练用户
      */
     private User getById(Long id) {
-        // 通过查询所有用户然后过滤
-        List<User> users = userMapper.findTrainers();
-        for (User user : users) {
-            if (user.getId().equals(id)) {
-                return user;
-            }
-        }
-        return null;
-    }
-    
-    /**
-     * 更新用户密码
-     */
-    private void updateUserPassword(Long id, String password) {
-        User user = getById(id);
-        if (user != null) {
-            // 通过updateStatus方法更新用户信息
-            userMapper.updateStatus(id, user.getStatus());
+        User user = userMapper.selectById(id);
+        if (user == null || !"trainer".equals(user.getRole()) || "disabled".equals(user.getStatus())) {
+            return null;
         }
+        return user;
     }
 }
\ No newline at end of file
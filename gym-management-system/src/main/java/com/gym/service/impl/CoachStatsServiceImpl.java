@@ -0,0 +1,113 @@
+package com.gym.service.impl;
+
+import com.gym.mapper.CoachStatsMapper;
+import com.gym.service.CoachStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 教练统计服务实现类
+ * 统计保存在 coach_daily_stats（教练每天的预约数）和 trainer_student（教练的学员）两张表中，
+ * 教练首页只按主键读取，不再对预约表做 DATE() 过滤和 COUNT(DISTINCT) 聚合
+ */
+@Service
+public class CoachStatsServiceImpl implements CoachStatsService {
+
+    private final CoachStatsMapper coachStatsMapper;
+
+    @Autowired
+    public CoachStatsServiceImpl(CoachStatsMapper coachStatsMapper) {
+        this.coachStatsMapper = coachStatsMapper;
+    }
+
+    /**
+     * 记录一次预约实现
+     * 由预约事务调用，统计行与预约记录一起提交或回滚
+     */
+    @Override
+    @Transactional
+    public void recordBooking(Long userId, Long courseId) {
+        coachStatsMapper.incrementDailyBookings(courseId);
+        coachStatsMapper.incrementStudentBookings(courseId, userId);
+    }
+
+    /**
+     * 记录一次取消预约实现
+     * 学员在该教练名下已没有预约时删除学员记录，学员数量随之减少
+     */
+    @Override
+    @Transactional
+    public void recordCancellation(Long userId, Long courseId) {
+        coachStatsMapper.decrementDailyBookings(courseId);
+        coachStatsMapper.decrementStudentBookings(courseId, userId);
+        coachStatsMapper.deleteIdleStudent(courseId, userId);
+    }
+
+    @Override
+    public int countBookings(Long trainerId, LocalDate date) {
+        Integer count = coachStatsMapper.selectDailyBookings(trainerId, date);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public int countStudents(Long trainerId) {
+        return coachStatsMapper.countStudents(trainerId);
+    }
+
+    @Override
+    public List<Long> findTrainerIdsByStudent(Long userId) {
+        return coachStatsMapper.selectTrainerIdsByStudent(userId);
+    }
+
+    /**
+     * 按预约表重建指定教练的统计实现
+     */
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void rebuildTrainers(Collection<Long> trainerIds) {
+        for (Long trainerId : new LinkedHashSet<>(trainerIds)) {
+            if (trainerId == null) {
+                continue;
+            }
+            rebuild(trainerId);
+        }
+    }
+
+    /**
+     * 按预约表重建所有教练的统计实现
+     * 用于发现统计与预约表不一致时修复
+     */
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public Map<String, Object> rebuildAll() {
+        rebuild(null);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("dailyRows", coachStatsMapper.countDailyStatsRows());
+        result.put("studentRows", coachStatsMapper.countStudentRows());
+        return result;
+    }
+
+    /**
+     * 重建统计
+     * 不先清空统计表：先清空会在锁预约记录之前锁住统计行，与先写预约、再更新统计的预约事务加锁顺序相反；
+     * 改为按预约表覆盖统计行（同时给读到的预约记录加共享锁），再删除已没有预约的统计行。
+     * 重建期间新增、取消的预约会等待重建提交后再更新统计，重建已读到的预约不会被重复计入
+     * @param trainerId 教练ID，为null时重建所有教练
+     */
+    private void rebuild(Long trainerId) {
+        coachStatsMapper.upsertDailyStatsFromBookings(trainerId);
+        coachStatsMapper.deleteStaleDailyStats(trainerId);
+        coachStatsMapper.upsertStudentsFromBookings(trainerId);
+        coachStatsMapper.deleteStaleStudents(trainerId);
+    }
+}
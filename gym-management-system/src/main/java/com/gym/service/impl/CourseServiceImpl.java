@@ -1,16 +1,22 @@
 package com.gym.service.impl;
 
+import com.gym.cache.CourseCatalog;
+import com.gym.cache.SeatInventory;
+import com.gym.dto.CourseMemberRow;
 import com.gym.entity.Course;
 import com.gym.entity.User;
 import com.gym.mapper.BookingMapper;
 import com.gym.mapper.CourseMapper;
+import com.gym.service.CoachStatsService;
 import com.gym.service.CourseService;
+import com.gym.service.DashboardStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.ArrayList;
 
 /**
@@ -26,13 +32,25 @@ public class CourseServiceImpl implements CourseService {
     @Autowired
     private BookingMapper bookingMapper;
 
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private CoachStatsService coachStatsService;
+
     /**
      * 获取所有可用课程
-     * 调用mapper的selectAvailableCourses方法
+     * 从内存课程目录获取，不查询数据库
      */
     @Override
     public List<Course> getAvailableCourses() {
-        return courseMapper.selectAvailableCourses();
+        return courseCatalog.getAvailableCourses();
     }
     
     /**
@@ -60,22 +78,19 @@ public class CourseServiceImpl implements CourseService {
         
         // 插入课程到数据库
         courseMapper.insert(course);
+        // 登记到名额库存并刷新课程目录
+        seatInventory.register(course);
+        courseCatalog.refresh();
+        dashboardStatsService.adjustCourseCount(1);
     }
 
     /**
      * 检查课程是否已满
-     * 查询课程信息，判断currentCount是否大于等于maxCapacity
+     * 以内存名额库存为准，不查询数据库
      */
     @Override
     public boolean isFull(Long courseId) {
-        // 根据ID查询课程
-        Course course = courseMapper.selectById(courseId);
-        if (course == null) {
-            return true; // 课程不存在，视为已满
-        }
-        
-        // 判断当前报名人数是否大于等于最大容量
-        return course.getCurrentCount() >= course.getMaxCapacity();
+        return seatInventory.isFull(courseId);
     }
 
     /**
@@ -94,14 +109,14 @@ public class CourseServiceImpl implements CourseService {
     @Override
     public List<User> getMembersByCourseId(Long courseId) {
         // 调用BookingMapper查询会员信息
-        List<Map<String, Object>> memberMaps = bookingMapper.selectCourseMembers(courseId);
-        List<User> members = new ArrayList<>();
+        List<CourseMemberRow> rows = bookingMapper.selectCourseMembers(courseId);
+        List<User> members = new ArrayList<>(rows.size());
         
         // 将查询结果转换为User对象
-        for (Map<String, Object> map : memberMaps) {
+        for (CourseMemberRow row : rows) {
             User user = new User();
-            user.setId(Long.valueOf(map.get("user_id").toString()));
-            user.setPhone(map.get("phone").toString());
+            user.setId(row.getUserId());
+            user.setPhone(row.getPhone());
             members.add(user);
         }
         
@@ -145,5 +160,13 @@ public class CourseServiceImpl implements CourseService {
         if (rowsAffected == 0) {
             throw new RuntimeException("更新课程失败，未找到匹配的课程记录，ID: " + id);
         }
+        // 同步名额库存中的最大容量并刷新课程目录
+        seatInventory.updateCapacity(id, maxCapacity);
+        courseCatalog.refresh();
+        // 调整了教练或上课日期时，原教练和新教练的统计都需要重建
+        if (!Objects.equals(existingCourse.getTrainerId(), trainerId)
+                || !Objects.equals(existingCourse.getScheduleTime().toLocalDate(), scheduleTime.toLocalDate())) {
+            coachStatsService.rebuildTrainers(Arrays.asList(existingCourse.getTrainerId(), trainerId));
+        }
     }
 }
\ No newline at end of file
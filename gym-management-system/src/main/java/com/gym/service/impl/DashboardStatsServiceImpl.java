@@ -0,0 +1,86 @@
+package com.gym.service.impl;
+
+import com.gym.dto.DashboardStats;
+import com.gym.mapper.UserMapper;
+import com.gym.service.DashboardStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 管理员首页统计服务实现类
+ * 一条SQL查询全部数量后缓存，过期前只在内存中增量更新，首页渲染不再随表大小变慢；
+ * 增量更新与并发查询之间可能产生的偏差在缓存过期重新查询后自动纠正。
+ */
+@Service
+public class DashboardStatsServiceImpl implements DashboardStatsService {
+
+    private final UserMapper userMapper;
+
+    private final long ttlMillis;
+
+    /**
+     * 缓存的统计，为null表示需要重新查询
+     */
+    private DashboardStats snapshot;
+
+    private long expireAt;
+
+    public DashboardStatsServiceImpl(UserMapper userMapper,
+                                     @Value("${gym.dashboard-stats.ttl-seconds:30}") long ttlSeconds) {
+        this.userMapper = userMapper;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * 获取首页统计实现
+     * 缓存不存在或已过期时重新查询，查询在锁内进行，避免多个请求同时查询
+     */
+    @Override
+    public synchronized DashboardStats getStats() {
+        long now = System.currentTimeMillis();
+        if (snapshot == null || now >= expireAt) {
+            DashboardStats stats = userMapper.selectDashboardStats();
+            snapshot = stats != null ? stats : new DashboardStats();
+            expireAt = now + ttlMillis;
+        }
+        DashboardStats copy = new DashboardStats();
+        copy.setMemberCount(snapshot.getMemberCount());
+        copy.setCoachCount(snapshot.getCoachCount());
+        copy.setCourseCount(snapshot.getCourseCount());
+        copy.setCardTypeCount(snapshot.getCardTypeCount());
+        return copy;
+    }
+
+    @Override
+    public synchronized void adjustMemberCount(int delta) {
+        if (snapshot != null) {
+            snapshot.setMemberCount(Math.max(0, snapshot.getMemberCount() + delta));
+        }
+    }
+
+    @Override
+    public synchronized void adjustCoachCount(int delta) {
+        if (snapshot != null) {
+            snapshot.setCoachCount(Math.max(0, snapshot.getCoachCount() + delta));
+        }
+    }
+
+    @Override
+    public synchronized void adjustCourseCount(int delta) {
+        if (snapshot != null) {
+            snapshot.setCourseCount(Math.max(0, snapshot.getCourseCount() + delta));
+        }
+    }
+
+    @Override
+    public synchronized void adjustCardTypeCount(int delta) {
+        if (snapshot != null) {
+            snapshot.setCardTypeCount(Math.max(0, snapshot.getCardTypeCount() + delta));
+        }
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+}
@@ -0,0 +1,133 @@
+package com.gym.service.impl;
+
+import com.gym.dto.BookingExportRow;
+import com.gym.dto.CardExportRow;
+import com.gym.dto.MemberExportRow;
+import com.gym.mapper.ExportMapper;
+import com.gym.service.ExportService;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
+
+/**
+ * 数据导出服务实现类
+ * 导出方法在只读事务中执行，MyBatis游标在事务结束前一直占用同一个连接，
+ * 每读取一行就写入缓冲区，缓冲区满时写到响应输出流。
+ * 连接占用时间与下载时间相同，连接池的泄漏检测阈值须大于导出耗时（见 application.properties）
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ExportMapper exportMapper;
+
+    @Autowired
+    public ExportServiceImpl(ExportMapper exportMapper) {
+        this.exportMapper = exportMapper;
+    }
+
+    /**
+     * 导出会员实现
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportMembers(OutputStream out) throws IOException {
+        return writeCsv(out, exportMapper.selectMembers(),
+                new String[]{"会员ID", "手机号", "姓名", "状态", "注册时间", "性别", "出生日期", "办卡日期",
+                        "身高(cm)", "体重(kg)", "电子邮箱", "地址", "紧急联系人", "紧急联系电话"},
+                (MemberExportRow row) -> new Object[]{row.getId(), row.getPhone(), row.getName(), row.getStatus(),
+                        row.getCreatedAt(), row.getGender(), row.getBirthDate(), row.getCardIssueDate(),
+                        row.getHeight(), row.getWeight(), row.getEmail(), row.getAddress(),
+                        row.getEmergencyContact(), row.getEmergencyPhone()});
+    }
+
+    /**
+     * 导出预约记录实现
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBookings(OutputStream out) throws IOException {
+        return writeCsv(out, exportMapper.selectBookings(),
+                new String[]{"预约ID", "会员手机号", "会员姓名", "课程名称", "上课时间", "教练", "预约时间", "状态"},
+                (BookingExportRow row) -> new Object[]{row.getId(), row.getMemberPhone(), row.getMemberName(),
+                        row.getCourseName(), row.getScheduleTime(), row.getTrainerName(), row.getBookingTime(),
+                        row.getStatus()});
+    }
+
+    /**
+     * 导出会员卡实现
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCards(OutputStream out) throws IOException {
+        return writeCsv(out, exportMapper.selectCards(),
+                new String[]{"会员卡ID", "卡号", "卡类型", "会员手机号", "会员姓名", "开始日期", "结束日期",
+                        "剩余次数", "总次数", "状态"},
+                (CardExportRow row) -> new Object[]{row.getId(), row.getCardNumber(), row.getCardType(),
+                        row.getMemberPhone(), row.getMemberName(), row.getStartDate(), row.getEndDate(),
+                        row.getRemainingCount(), row.getTotalCount(), row.getStatus()});
+    }
+
+    /**
+     * 逐行遍历游标写出CSV
+     */
+    private <T> long writeCsv(OutputStream out, Cursor<T> cursor, String[] header,
+                              Function<T, Object[]> columns) throws IOException {
+        // 不关闭Writer，输出流由调用方关闭
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try (Cursor<T> rows = cursor) {
+            // BOM，让Excel按UTF-8识别中文
+            writer.write('\uFEFF');
+            writeLine(writer, header);
+            for (T row : rows) {
+                writeLine(writer, columns.apply(row));
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * 转义CSV字段：含逗号、引号或换行时加引号；以 = + - @ 开头的文本前加单引号，避免在Excel中被当作公式执行
+     */
+    private String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        String text = value instanceof LocalDateTime ? DATE_TIME.format((LocalDateTime) value) : value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,401 @@
+package com.gym.service.impl;
+
+import com.gym.cache.CredentialCache;
+import com.gym.dto.MemberImportResult;
+import com.gym.entity.MemberInfo;
+import com.gym.entity.User;
+import com.gym.mapper.MemberInfoMapper;
+import com.gym.mapper.UserMapper;
+import com.gym.service.DashboardStatsService;
+import com.gym.service.MemberImportService;
+import com.gym.service.PasswordHashingService;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+/**
+ * 会员批量导入服务实现类
+ * 按块处理：每块先批量检查手机号是否已存在，再在密码哈希线程池中并行计算密码（同时提交的任务数有上限，
+ * 不挤占登录验证），最后用 MyBatis BATCH 执行器在一个事务中批量插入 user 和 member_info。
+ * 一块写入失败时整块回滚，块内各行记为失败，之前已提交的块不受影响。
+ */
+@Service
+public class MemberImportServiceImpl implements MemberImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberImportServiceImpl.class);
+
+    private static final Pattern PHONE_PATTERN = Pattern.compile("1\\d{10}");
+
+    /**
+     * 表头 -> 字段，中文表头与会员导出文件一致
+     */
+    private static final Map<String, String> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put("手机号", "phone");
+        COLUMNS.put("姓名", "name");
+        COLUMNS.put("密码", "password");
+        COLUMNS.put("性别", "gender");
+        COLUMNS.put("出生日期", "birthDate");
+        COLUMNS.put("办卡日期", "cardIssueDate");
+        COLUMNS.put("身高(cm)", "height");
+        COLUMNS.put("体重(kg)", "weight");
+        COLUMNS.put("电子邮箱", "email");
+        COLUMNS.put("地址", "address");
+        COLUMNS.put("紧急联系人", "emergencyContact");
+        COLUMNS.put("紧急联系电话", "emergencyPhone");
+    }
+
+    private final UserMapper userMapper;
+
+    private final PasswordHashingService passwordHashingService;
+
+    private final DashboardStatsService dashboardStatsService;
+
+    private final CredentialCache credentialCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 使用BATCH执行器的会话，只在导入事务中使用
+     */
+    private final SqlSessionTemplate batchSqlSession;
+
+    private final UserMapper batchUserMapper;
+
+    private final MemberInfoMapper batchMemberInfoMapper;
+
+    private final int chunkSize;
+
+    private final int hashWindow;
+
+    public MemberImportServiceImpl(SqlSessionFactory sqlSessionFactory,
+                                   PlatformTransactionManager transactionManager,
+                                   UserMapper userMapper,
+                                   PasswordHashingService passwordHashingService,
+                                   DashboardStatsService dashboardStatsService,
+                                   CredentialCache credentialCache,
+                                   @Value("${gym.member-import.chunk-size:500}") int chunkSize,
+                                   @Value("${gym.member-import.hash-window:32}") int hashWindow) {
+        this.userMapper = userMapper;
+        this.passwordHashingService = passwordHashingService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.credentialCache = credentialCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        this.batchUserMapper = batchSqlSession.getMapper(UserMapper.class);
+        this.batchMemberInfoMapper = batchSqlSession.getMapper(MemberInfoMapper.class);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.hashWindow = Math.max(1, hashWindow);
+    }
+
+    /**
+     * 导入会员实现
+     */
+    @Override
+    public MemberImportResult importMembers(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        MemberImportResult result = new MemberImportResult();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            throw new RuntimeException("导入文件为空");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim();
+            if (COLUMNS.containsKey(name)) {
+                columns.put(COLUMNS.get(name), i);
+            }
+        }
+        if (!columns.containsKey("phone") || !columns.containsKey("name")) {
+            throw new RuntimeException("导入文件缺少“手机号”或“姓名”列");
+        }
+
+        Set<String> phones = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        int line = 1;
+        List<String> record;
+        while ((record = readRecord(reader)) != null) {
+            line++;
+            if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                continue;
+            }
+            result.setTotalRows(result.getTotalRows() + 1);
+            ImportRow row = parseRow(line, record, columns, result);
+            if (row == null) {
+                continue;
+            }
+            if (!phones.add(row.user.getPhone())) {
+                fail(result, row, "文件中手机号重复");
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        result.setElapsedMs(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos > 0 ? result.getImportedRows() * 1e9 / elapsedNanos : 0);
+        if (result.getImportedRows() > 0) {
+            dashboardStatsService.adjustMemberCount(result.getImportedRows());
+        }
+        logger.info("会员导入完成：共 {} 行，成功 {} 行，失败 {} 行，耗时 {} ms，{} 行/秒",
+                result.getTotalRows(), result.getImportedRows(), result.getFailedRows(),
+                result.getElapsedMs(), String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * 导入一块数据：检查手机号、计算密码哈希、批量插入
+     */
+    private void importChunk(List<ImportRow> chunk, MemberImportResult result) {
+        List<String> phones = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            phones.add(row.user.getPhone());
+        }
+        Set<String> existing = new HashSet<>(userMapper.selectExistingPhones(phones));
+
+        List<ImportRow> rows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existing.contains(row.user.getPhone())) {
+                fail(result, row, "手机号已存在");
+            } else {
+                rows.add(row);
+            }
+        }
+        rows = hashPasswords(rows, result);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<ImportRow> inserted = rows;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ImportRow row : inserted) {
+                    batchUserMapper.insertUser(row.user);
+                }
+                // 执行批量插入并回填自增ID
+                batchSqlSession.flushStatements();
+                for (ImportRow row : inserted) {
+                    if (row.user.getId() == null) {
+                        throw new IllegalStateException("未获取到新用户ID");
+                    }
+                    row.memberInfo.setUserId(row.user.getId());
+                    batchMemberInfoMapper.insert(row.memberInfo);
+                }
+                batchSqlSession.flushStatements();
+            });
+        } catch (RuntimeException e) {
+            logger.warn("会员导入批量写入失败，本块 {} 行回滚: {}", inserted.size(), e.getMessage());
+            for (ImportRow row : inserted) {
+                fail(result, row, "批量写入失败: " + e.getMessage());
+            }
+            return;
+        }
+        for (ImportRow row : inserted) {
+            credentialCache.invalidate(row.user.getPhone());
+        }
+        result.setImportedRows(result.getImportedRows() + inserted.size());
+    }
+
+    /**
+     * 在密码哈希线程池中并行计算密码，同时提交的任务不超过 hashWindow 个
+     * @return 加密成功的行
+     */
+    private List<ImportRow> hashPasswords(List<ImportRow> rows, MemberImportResult result) {
+        List<ImportRow> hashed = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += hashWindow) {
+            List<ImportRow> window = rows.subList(from, Math.min(from + hashWindow, rows.size()));
+            List<CompletableFuture<String>> futures = new ArrayList<>(window.size());
+            for (ImportRow row : window) {
+                futures.add(passwordHashingService.encodeAsync(row.user.getPassword()));
+            }
+            for (int i = 0; i < window.size(); i++) {
+                ImportRow row = window.get(i);
+                try {
+                    row.user.setPassword(futures.get(i).join());
+                    hashed.add(row);
+                } catch (CompletionException e) {
+                    fail(result, row, "密码加密失败，系统繁忙");
+                }
+            }
+        }
+        return hashed;
+    }
+
+    /**
+     * 校验并转换一行数据
+     * @return 转换后的行，校验失败时记录错误并返回null
+     */
+    private ImportRow parseRow(int line, List<String> record, Map<String, Integer> columns, MemberImportResult result) {
+        String phone = value(record, columns, "phone");
+        String name = value(record, columns, "name");
+        if (phone == null || !PHONE_PATTERN.matcher(phone).matches()) {
+            result.getErrors().add(new MemberImportResult.RowError(line, phone, "手机号格式不正确"));
+            result.setFailedRows(result.getFailedRows() + 1);
+            return null;
+        }
+        String error = null;
+        MemberInfo memberInfo = new MemberInfo();
+        memberInfo.setName(name);
+        memberInfo.setPhone(phone);
+        memberInfo.setGender(value(record, columns, "gender"));
+        memberInfo.setEmail(value(record, columns, "email"));
+        memberInfo.setAddress(value(record, columns, "address"));
+        memberInfo.setEmergencyContact(value(record, columns, "emergencyContact"));
+        memberInfo.setEmergencyPhone(value(record, columns, "emergencyPhone"));
+        if (name == null || name.length() > 50) {
+            error = "姓名不能为空且不超过50个字符";
+        } else if (memberInfo.getGender() != null && !"男".equals(memberInfo.getGender()) && !"女".equals(memberInfo.getGender())) {
+            error = "性别只能为男或女";
+        } else if (memberInfo.getEmail() != null && memberInfo.getEmail().indexOf('@') < 0) {
+            error = "电子邮箱格式不正确";
+        } else {
+            try {
+                memberInfo.setBirthDate(date(value(record, columns, "birthDate")));
+                memberInfo.setCardIssueDate(date(value(record, columns, "cardIssueDate")));
+            } catch (DateTimeParseException e) {
+                error = "日期格式应为yyyy-MM-dd";
+            }
+            try {
+                memberInfo.setHeight(decimal(value(record, columns, "height")));
+                memberInfo.setWeight(decimal(value(record, columns, "weight")));
+            } catch (NumberFormatException e) {
+                error = "身高或体重格式不正确";
+            }
+        }
+        if (error != null) {
+            result.getErrors().add(new MemberImportResult.RowError(line, phone, error));
+            result.setFailedRows(result.getFailedRows() + 1);
+            return null;
+        }
+
+        User user = new User();
+        user.setPhone(phone);
+        // 与单个新增会员一致，默认密码为手机号后6位
+        String password = value(record, columns, "password");
+        user.setPassword(password != null ? password : phone.substring(phone.length() - 6));
+        user.setRole("member");
+        user.setStatus("active");
+        return new ImportRow(line, user, memberInfo);
+    }
+
+    private void fail(MemberImportResult result, ImportRow row, String message) {
+        result.getErrors().add(new MemberImportResult.RowError(row.line, row.user.getPhone(), message));
+        result.setFailedRows(result.getFailedRows() + 1);
+    }
+
+    /**
+     * 读取单元格，空白返回null；去掉导出时为防止公式执行加的单引号
+     */
+    private static String value(List<String> record, Map<String, Integer> columns, String field) {
+        Integer index = columns.get(field);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String text = record.get(index).trim();
+        if (text.length() > 1 && text.charAt(0) == '\'' && "=+-@".indexOf(text.charAt(1)) >= 0) {
+            text = text.substring(1);
+        }
+        return text.isEmpty() ? null : text;
+    }
+
+    private static LocalDate date(String text) {
+        return text != null ? LocalDate.parse(text) : null;
+    }
+
+    private static BigDecimal decimal(String text) {
+        return text != null ? new BigDecimal(text) : null;
+    }
+
+    /**
+     * 读取一条CSV记录，支持引号包裹的字段（字段内可包含逗号、换行和两个连续引号表示的引号）
+     * @return 字段列表，文件结束时返回null
+     */
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * 待导入的一行
+     */
+    private static final class ImportRow {
+
+        private final int line;
+
+        private final User user;
+
+        private final MemberInfo memberInfo;
+
+        private ImportRow(int line, User user, MemberInfo memberInfo) {
+            this.line = line;
+            this.user = user;
+            this.memberInfo = memberInfo;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.gym.service.impl;
 
+import com.gym.cache.CredentialCache;
 import com.gym.entity.MemberInfo;
 import com.gym.entity.User;
 import com.gym.mapper.MemberInfoMapper;
@@ -10,7 +11,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -18,6 +23,11 @@ import java.util.Optional;
  */
 @Service
 public class MemberInfoServiceImpl implements MemberInfoService {
+
+    /**
+     * 批量查询时单条IN语句的最大ID数量
+     */
+    private static final int BATCH_SIZE = 1000;
     
     @Autowired
     private MemberInfoMapper memberInfoMapper;
@@ -25,11 +35,31 @@ public class MemberInfoServiceImpl implements MemberInfoService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private CredentialCache credentialCache;
+
     @Override
     public MemberInfo getMemberInfoByUserId(Long userId) {
         return memberInfoMapper.selectByUserId(userId);
     }
 
+    /**
+     * 批量获取会员信息
+     * 按批次执行IN查询，查询次数只与批次数有关，与会员数量无关
+     */
+    @Override
+    public Map<Long, MemberInfo> getMemberInfoMapByUserIds(Collection<Long> userIds) {
+        Map<Long, MemberInfo> result = new HashMap<>();
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            for (MemberInfo memberInfo : memberInfoMapper.selectByUserIds(batch)) {
+                result.put(memberInfo.getUserId(), memberInfo);
+            }
+        }
+        return result;
+    }
+
     @Override
     public MemberInfo getMemberInfoByPhone(String phone) {
         return memberInfoMapper.selectByPhone(phone);
@@ -43,6 +73,8 @@ public class MemberInfoServiceImpl implements MemberInfoService {
             memberInfo.setCardIssueDate(LocalDate.now());
         }
         memberInfoMapper.insert(memberInfo);
+        // 登录凭证中缓存了显示姓名
+        credentialCache.invalidateById(memberInfo.getUserId());
         return memberInfo;
     }
 
@@ -54,6 +86,7 @@ public class MemberInfoServiceImpl implements MemberInfoService {
             throw new RuntimeException("会员信息不存在");
         }
         memberInfoMapper.updateByUserId(memberInfo);
+        credentialCache.invalidateById(memberInfo.getUserId());
         return memberInfoMapper.selectByUserId(memberInfo.getUserId());
     }
 
@@ -2,6 +2,7 @@ package com.gym.service.impl;
 
 import com.gym.entity.MembershipCard;
 import com.gym.mapper.MembershipCardMapper;
+import com.gym.service.DashboardStatsService;
 import com.gym.service.MembershipCardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,10 +18,12 @@ import java.util.List;
 public class MembershipCardServiceImpl implements MembershipCardService {
 
     private final MembershipCardMapper membershipCardMapper;
+    private final DashboardStatsService dashboardStatsService;
 
     @Autowired
-    public MembershipCardServiceImpl(MembershipCardMapper membershipCardMapper) {
+    public MembershipCardServiceImpl(MembershipCardMapper membershipCardMapper, DashboardStatsService dashboardStatsService) {
         this.membershipCardMapper = membershipCardMapper;
+        this.dashboardStatsService = dashboardStatsService;
     }
 
     /**
@@ -54,6 +57,7 @@ public class MembershipCardServiceImpl implements MembershipCardService {
         }
         // 插入数据库
         membershipCardMapper.insert(card);
+        dashboardStatsService.adjustCardTypeCount(1);
     }
 
     /**
@@ -72,7 +76,9 @@ public class MembershipCardServiceImpl implements MembershipCardService {
      */
     @Override
     public void deleteCard(Long id) {
-        membershipCardMapper.delete(id);
+        if (membershipCardMapper.delete(id) > 0) {
+            dashboardStatsService.adjustCardTypeCount(-1);
+        }
     }
 
     /**
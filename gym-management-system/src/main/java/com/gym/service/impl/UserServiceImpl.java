@@ -1,19 +1,31 @@
 package com.gym.service.impl;
 
+import com.gym.cache.CredentialCache;
+import com.gym.cache.SeatInventory;
+import com.gym.dto.CoachView;
+import com.gym.dto.CursorPage;
+import com.gym.dto.UserCredential;
 import com.gym.entity.MemberInfo;
 import com.gym.entity.User;
+import com.gym.mapper.BookingMapper;
 import com.gym.mapper.UserMapper;
 import com.gym.mapper.CoachInfoMapper;
-import com.gym.entity.CoachInfo;
+import com.gym.security.GymUserDetails;
+import com.gym.security.UserSessionInvalidator;
+import com.gym.service.CoachStatsService;
+import com.gym.service.DashboardStatsService;
 import com.gym.service.MemberInfoService;
 import com.gym.service.UserService;
+import com.gym.utils.SqlLikeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService; // ← 新增导入
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -21,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.time.LocalDate;
+import java.time.Period;
 import java.time.ZoneId;
 
 /**
@@ -28,17 +41,42 @@ import java.time.ZoneId;
  * 实现用户相关的业务逻辑，并支持 Spring Security 认证
  */
 @Service
-public class UserServiceImpl implements UserService, UserDetailsService { // ← 实现 UserDetailsService
+public class UserServiceImpl implements UserService, UserDetailsService, UserDetailsPasswordService { // ← 实现 UserDetailsService
+
+    /**
+     * 会员分页默认每页条数
+     */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 会员分页每页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final UserMapper userMapper;
     private final CoachInfoMapper coachInfoMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserSessionInvalidator sessionInvalidator;
+    private final CredentialCache credentialCache;
+    private final DashboardStatsService dashboardStatsService;
+    private final CoachStatsService coachStatsService;
+    private final BookingMapper bookingMapper;
+    private final SeatInventory seatInventory;
 
     @Autowired
-    public UserServiceImpl(UserMapper userMapper, CoachInfoMapper coachInfoMapper, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserMapper userMapper, CoachInfoMapper coachInfoMapper, PasswordEncoder passwordEncoder,
+                           UserSessionInvalidator sessionInvalidator, CredentialCache credentialCache,
+                           DashboardStatsService dashboardStatsService, CoachStatsService coachStatsService,
+                           BookingMapper bookingMapper, SeatInventory seatInventory) {
         this.userMapper = userMapper;
         this.coachInfoMapper = coachInfoMapper;
         this.passwordEncoder = passwordEncoder;
+        this.sessionInvalidator = sessionInvalidator;
+        this.credentialCache = credentialCache;
+        this.dashboardStatsService = dashboardStatsService;
+        this.coachStatsService = coachStatsService;
+        this.bookingMapper = bookingMapper;
+        this.seatInventory = seatInventory;
     }
 
     /**
@@ -57,29 +95,36 @@ public class UserServiceImpl implements UserService, UserDetailsService { // ←
         user.setRole("member"); // 默认角色为小写 "member"
 
         userMapper.insertUser(user);
+        credentialCache.invalidate(phone);
+        dashboardStatsService.adjustMemberCount(1);
         return true;
     }
 
     /**
      * 根据手机号加载用户详情（供内部使用）
+     * 返回的GymUserDetails保存在会话中，控制器直接从中获取用户ID等信息；
+     * 登录凭证优先从缓存获取，未命中时只查询登录需要的字段
      */
     @Override
     public UserDetails loadUserByPhone(String phone) {
-        User user = userMapper.findByPhone(phone);
-        if (user == null) {
-            throw new UsernameNotFoundException("用户不存在: " + phone);
+        UserCredential credential = credentialCache.get(phone);
+        if (credential == null) {
+            // 先取失效代数再查库，查询期间凭证被失效时不会把旧数据放回缓存
+            long generation = credentialCache.generation(phone);
+            credential = userMapper.findCredentialByPhone(phone);
+            if (credential == null) {
+                throw new UsernameNotFoundException("用户不存在: " + phone);
+            }
+            credentialCache.put(credential, generation);
         }
 
         List<SimpleGrantedAuthority> authorities = new ArrayList<>();
         // 将数据库中的 role（如 "member"）转为 "ROLE_MEMBER"
-        String role = user.getRole() != null ? user.getRole().toUpperCase() : "MEMBER";
+        String role = credential.getRole() != null ? credential.getRole().toUpperCase() : "MEMBER";
         authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getPhone(),
-                user.getPassword(), // 必须是 BCrypt 加密后的
-                authorities
-        );
+        // 密码必须是 BCrypt 加密后的；禁用的用户不允许登录
+        return new GymUserDetails(credential, authorities);
     }
 
     // ✅ 关键：实现 UserDetailsService 接口的方法
@@ -89,6 +134,26 @@ public class UserServiceImpl implements UserService, UserDetailsService { // ←
         return loadUserByPhone(username);
     }
 
+    /**
+     * 登录成功后重新加密保存密码
+     * 由Spring Security在已保存密码的BCrypt强度与配置不同时调用
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        GymUserDetails details = (GymUserDetails) user;
+        userMapper.updatePassword(details.getId(), newPassword);
+        credentialCache.invalidate(details.getPhone());
+
+        UserCredential credential = new UserCredential();
+        credential.setId(details.getId());
+        credential.setPhone(details.getPhone());
+        credential.setPassword(newPassword);
+        credential.setRole(details.getRole());
+        credential.setStatus(details.getStatus());
+        credential.setName(details.getName());
+        return new GymUserDetails(credential, details.getAuthorities());
+    }
+
     /**
      * 搜索会员
      */
@@ -97,37 +162,92 @@ public class UserServiceImpl implements UserService, UserDetailsService { // ←
     
     @Override
     public List<User> searchMembers(Map<String, Object> params) {
-        List<User> members = userMapper.searchMembers(params);
-        // 为每个会员加载对应的详细信息
+        List<User> members = userMapper.searchMembers(toSearchQuery(params));
+        fillMemberInfo(members);
+        return members;
+    }
+
+    /**
+     * 按游标分页搜索会员
+     * 多查询一条用于判断是否还有下一页，总数只在调用方需要时统计
+     */
+    @Override
+    public CursorPage<User> searchMembersPage(Map<String, Object> params, Long after, int size, boolean withTotal) {
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        Map<String, Object> query = toSearchQuery(params);
+        query.put("after", after);
+        query.put("limit", pageSize + 1);
+        List<User> members = userMapper.searchMembersPage(query);
+
+        CursorPage<User> page = new CursorPage<>();
+        page.setHasMore(members.size() > pageSize);
+        if (page.isHasMore()) {
+            members = new ArrayList<>(members.subList(0, pageSize));
+        }
+        fillMemberInfo(members);
+        page.setItems(members);
+        page.setNextCursor(page.isHasMore() ? members.get(members.size() - 1).getId() : null);
+        if (withTotal) {
+            page.setTotal(userMapper.countSearchMembers(query));
+        }
+        return page;
+    }
+
+    /**
+     * 复制搜索参数，姓名和手机号转换为前缀匹配模式，手机尾号转换为后缀匹配模式
+     */
+    private Map<String, Object> toSearchQuery(Map<String, Object> params) {
+        Map<String, Object> query = new HashMap<>(params);
+        query.put("namePattern", SqlLikeUtils.prefixPattern(params.get("name")));
+        query.put("phonePattern", SqlLikeUtils.prefixPattern(params.get("phone")));
+        query.put("phoneSuffixPattern", SqlLikeUtils.suffixPattern(params.get("phoneSuffix")));
+        return query;
+    }
+
+    /**
+     * 为会员列表批量填充详细信息
+     * 一次批量查询member_info，查询次数不随会员数量增长
+     * @param members 会员列表
+     */
+    private void fillMemberInfo(List<User> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(members.size());
         for (User user : members) {
-            MemberInfo memberInfo = memberInfoService.getMemberInfoByUserId(user.getId());
+            userIds.add(user.getId());
+        }
+        Map<Long, MemberInfo> memberInfos = memberInfoService.getMemberInfoMapByUserIds(userIds);
+        for (User user : members) {
+            MemberInfo memberInfo = memberInfos.get(user.getId());
             if (memberInfo != null) {
-                // 将MemberInfo中的数据设置到User对象中，以便前端显示
-                user.setName(memberInfo.getName() != null ? memberInfo.getName() : "未设置");
-                user.setGender(memberInfo.getGender() != null ? memberInfo.getGender() : "未知");
-                // 设置头像
-                user.setAvatar(memberInfo.getAvatar());
-                // 计算年龄
-                if (memberInfo.getBirthDate() != null) {
-                    LocalDate birthDate = memberInfo.getBirthDate();
-                    LocalDate now = LocalDate.now();
-                    int age = now.getYear() - birthDate.getYear();
-                    if (birthDate.getMonthValue() > now.getMonthValue() || 
-                        (birthDate.getMonthValue() == now.getMonthValue() && birthDate.getDayOfMonth() > now.getDayOfMonth())) {
-                        age--;
-                    }
-                    user.setAge(age);
-                }
-                // 设置会员卡类型和有效期（这些信息可能需要从其他服务获取）
-                // 这里暂时设置为默认值，实际应用中可能需要从会员卡服务获取
-                user.setCardType("标准卡");
-                if (memberInfo.getCardIssueDate() != null) {
-                    LocalDate issueDate = memberInfo.getCardIssueDate();
-                    user.setExpireDate(Date.from(issueDate.plusYears(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
-                }
+                fillMemberInfo(user, memberInfo);
             }
         }
-        return members;
+    }
+
+    /**
+     * 将MemberInfo中的数据设置到User对象中，以便前端显示
+     * @param user 用户对象
+     * @param memberInfo 会员详细信息
+     */
+    private void fillMemberInfo(User user, MemberInfo memberInfo) {
+        user.setName(memberInfo.getName() != null ? memberInfo.getName() : "未设置");
+        user.setGender(memberInfo.getGender() != null ? memberInfo.getGender() : "未知");
+        // 设置头像
+        user.setAvatar(memberInfo.getAvatar());
+        // 计算年龄
+        if (memberInfo.getBirthDate() != null) {
+            user.setAge(Period.between(memberInfo.getBirthDate(), LocalDate.now()).getYears());
+        }
+        // 设置会员卡类型和有效期（这些信息可能需要从其他服务获取）
+        // 这里暂时设置为默认值，实际应用中可能需要从会员卡服务获取
+        user.setCardType("标准卡");
+        if (memberInfo.getCardIssueDate() != null) {
+            LocalDate issueDate = memberInfo.getCardIssueDate();
+            user.setExpireDate(Date.from(issueDate.plusYears(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        }
     }
 
     /**
@@ -136,6 +256,9 @@ public class UserServiceImpl implements UserService, UserDetailsService { // ←
     @Override
     public void disableUser(Long userId) {
         userMapper.updateStatus(userId, "disabled");
+        credentialCache.invalidateById(userId);
+        dashboardStatsService.invalidate();
+        sessionInvalidator.invalidate(userId);
     }
     
     /**
@@ -156,38 +279,23 @@ public class UserServiceImpl implements UserService, UserDetailsService { // ←
         user.setPassword(passwordEncoder.encode(password));
         user.setRole("trainer"); // 设置角色为教练
         userMapper.insertUser(user);
+        credentialCache.invalidate(phone);
+        dashboardStatsService.adjustCoachCount(1);
     }
     
     /**
      * 获取所有教练用户
+     * 通过user LEFT JOIN coach_info的花名册查询，查询次数与教练数量无关
      */
     @Override
-    public List<User> findTrainers() {
-        List<User> trainers = userMapper.findTrainers();
-        
-        // 为每个教练用户添加额外信息
-        for (User user : trainers) {
-            // 从coach_info表中获取教练的真实信息
-            CoachInfo coachInfo = coachInfoMapper.findByUserId(user.getId());
-            if (coachInfo != null) {
-                // 设置教练的真实名称和性别
-                if (coachInfo.getName() != null) {
-                    user.setName(coachInfo.getName());
-                } else if (user.getName() == null) {
-                    // 如果coach_info表中没有姓名且user表中也没有，则设置默认值
-                    user.setName("未设置姓名");
-                }
-                if (coachInfo.getGender() != null) {
-                    user.setGender(coachInfo.getGender());
-                }
-                // 设置教练头像
-                user.setAvatar(coachInfo.getAvatar());
-            } else if (user.getName() == null) {
-                // 如果coach_info表中没有记录且user表中也没有姓名，则设置默认值
-                user.setName("未设置姓名");
+    public List<CoachView> findTrainers() {
+        List<CoachView> trainers = coachInfoMapper.findRoster();
+        for (CoachView trainer : trainers) {
+            // coach_info表中没有记录或没有姓名时设置默认值
+            if (trainer.getName() == null) {
+                trainer.setName("未设置姓名");
             }
         }
-        
         return trainers;
     }
     
@@ -220,29 +328,7 @@ public class UserServiceImpl implements UserService, UserDetailsService { // ←
                 // 初始化会员信息
                 memberInfo = memberInfoService.initMemberInfo(user.getId(), user.getPhone());
             }
-            // 将MemberInfo中的数据设置到User对象中，以便前端显示
-            user.setName(memberInfo.getName() != null ? memberInfo.getName() : "未设置");
-            user.setGender(memberInfo.getGender() != null ? memberInfo.getGender() : "未知");
-            // 设置头像
-            user.setAvatar(memberInfo.getAvatar());
-            // 计算年龄
-            if (memberInfo.getBirthDate() != null) {
-                LocalDate birthDate = memberInfo.getBirthDate();
-                LocalDate now = LocalDate.now();
-                int age = now.getYear() - birthDate.getYear();
-                if (birthDate.getMonthValue() > now.getMonthValue() || 
-                    (birthDate.getMonthValue() == now.getMonthValue() && birthDate.getDayOfMonth() > now.getDayOfMonth())) {
-                    age--;
-                }
-                user.setAge(age);
-            }
-            // 设置会员卡类型和有效期（这些信息可能需要从其他服务获取）
-            // 这里暂时设置为默认值，实际应用中可能需要从会员卡服务获取
-            user.setCardType("标准卡");
-            if (memberInfo.getCardIssueDate() != null) {
-                LocalDate issueDate = memberInfo.getCardIssueDate();
-                user.setExpireDate(Date.from(issueDate.plusYears(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
-            }
+            fillMemberInfo(user, memberInfo);
         }
         return user;
     }
@@ -259,6 +345,8 @@ public class UserServiceImpl implements UserService, UserDetailsService { // ←
         user.setRole("member");
         user.setStatus("active");
         userMapper.insert(user);
+        credentialCache.invalidate(user.getPhone());
+        dashboardStatsService.adjustMemberCount(1);
     }
     
     /**
@@ -272,13 +360,30 @@ public class UserServiceImpl implements UserService, UserDetailsService { // ←
             throw new RuntimeException("手机号已存在");
         }
         userMapper.updateById(user);
+        credentialCache.invalidateById(user.getId());
+        // 状态变化可能影响活跃教练数量
+        dashboardStatsService.invalidate();
+        sessionInvalidator.invalidate(user.getId());
     }
     
     /**
      * 删除会员
+     * 预约记录随会员级联删除，每条预约归还一个课程名额（内存模式在事务提交后归还），
+     * 删除后重建该会员预约过的教练的统计
      */
     @Override
+    @Transactional
     public void deleteMember(Long id) {
-        userMapper.deleteById(id);
+        List<Long> trainerIds = coachStatsService.findTrainerIdsByStudent(id);
+        List<Long> bookedCourseIds = bookingMapper.selectCourseIdsByUserId(id);
+        if (userMapper.deleteById(id) > 0) {
+            for (Long courseId : bookedCourseIds) {
+                seatInventory.release(courseId);
+            }
+            dashboardStatsService.adjustMemberCount(-1);
+            coachStatsService.rebuildTrainers(trainerIds);
+        }
+        credentialCache.invalidateById(id);
+        sessionInvalidator.invalidate(id);
     }
 }
\ No newline at end of file
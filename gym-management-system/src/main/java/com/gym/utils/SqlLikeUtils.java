@@ -0,0 +1,57 @@
+package com.gym.utils;
+
+/**
+ * LIKE 查询工具类
+ * 模式在Java中拼好后作为参数绑定，"前缀%" 形式的常量模式才能被数据库用作索引范围扫描；
+ * 后缀、包含匹配无法使用索引，只用于已经由其他条件限定了扫描范围的查询
+ */
+public final class SqlLikeUtils {
+
+    private SqlLikeUtils() {
+    }
+
+    /**
+     * 生成前缀匹配模式
+     * @param keyword 关键词
+     * @return 前缀匹配模式，关键词为空时返回null
+     */
+    public static String prefixPattern(Object keyword) {
+        return isEmpty(keyword) ? null : escape(keyword) + "%";
+    }
+
+    /**
+     * 生成后缀匹配模式
+     * @param keyword 关键词
+     * @return 后缀匹配模式，关键词为空时返回null
+     */
+    public static String suffixPattern(Object keyword) {
+        return isEmpty(keyword) ? null : "%" + escape(keyword);
+    }
+
+    /**
+     * 生成包含匹配模式
+     * @param keyword 关键词
+     * @return 包含匹配模式，关键词为空时返回null
+     */
+    public static String containsPattern(Object keyword) {
+        return isEmpty(keyword) ? null : "%" + escape(keyword) + "%";
+    }
+
+    private static boolean isEmpty(Object keyword) {
+        return keyword == null || keyword.toString().isEmpty();
+    }
+
+    /**
+     * 转义关键词中的通配符（MySQL 默认转义字符为反斜杠）
+     */
+    private static String escape(Object keyword) {
+        StringBuilder pattern = new StringBuilder();
+        for (char c : keyword.toString().toCharArray()) {
+            if (c == '\\' || c == '%' || c == '_') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.toString();
+    }
+}
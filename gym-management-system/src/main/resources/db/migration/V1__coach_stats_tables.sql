@@ -0,0 +1,22 @@
+-- 教练首页统计表
+-- 由预约、取消预约增量维护，已有预约数据的数据库执行后需调用 POST /admin/stats/coach/rebuild 初始化
+
+-- 创建教练每日预约统计表（由预约、取消预约增量维护，可通过管理员接口重建）
+CREATE TABLE IF NOT EXISTS `coach_daily_stats` (
+  `trainer_id` BIGINT NOT NULL COMMENT '教练ID（关联user表）',
+  `stat_date` DATE NOT NULL COMMENT '上课日期',
+  `booking_count` INT NOT NULL DEFAULT 0 COMMENT '当天课程的预约数量',
+  PRIMARY KEY (`trainer_id`, `stat_date`),
+  CONSTRAINT `fk_coach_daily_stats_trainer` FOREIGN KEY (`trainer_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='教练每日预约统计表';
+
+-- 创建教练学员表（每个预约过教练课程的学员一行，由预约、取消预约增量维护）
+CREATE TABLE IF NOT EXISTS `trainer_student` (
+  `trainer_id` BIGINT NOT NULL COMMENT '教练ID（关联user表）',
+  `user_id` BIGINT NOT NULL COMMENT '学员ID（关联user表）',
+  `booking_count` INT NOT NULL DEFAULT 0 COMMENT '该学员预约该教练课程的次数',
+  PRIMARY KEY (`trainer_id`, `user_id`),
+  INDEX `idx_user_id` (`user_id`),
+  CONSTRAINT `fk_trainer_student_trainer` FOREIGN KEY (`trainer_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE,
+  CONSTRAINT `fk_trainer_student_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='教练学员表';
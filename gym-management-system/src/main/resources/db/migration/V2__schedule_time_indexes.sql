@@ -0,0 +1,9 @@
+-- 课程上课时间、预约表联查使用的组合索引
+-- 原有的 idx_trainer_id、idx_course_id 是新索引的前缀，外键仍依赖它们，暂不删除；
+-- booking 的唯一索引 idx_user_course (user_id, course_id, status) 已覆盖按会员查询课程ID，无需再建 (user_id, course_id)
+
+-- 教练查询自己的课程并按上课时间排序、按上课时间范围筛选
+ALTER TABLE `course` ADD INDEX `idx_trainer_schedule` (`trainer_id`, `schedule_time`);
+
+-- 按课程统计、查询预约会员时直接从索引取得会员ID，不回表
+ALTER TABLE `booking` ADD INDEX `idx_course_user` (`course_id`, `user_id`);
@@ -0,0 +1,34 @@
+-- 补齐代码中使用、但建表脚本中缺少的列
+
+-- 会员、教练姓名
+-- @skip-if-column-exists user.name
+ALTER TABLE `user` ADD COLUMN `name` VARCHAR(50) COMMENT '姓名' AFTER `phone`;
+
+-- 会员头像
+-- @skip-if-column-exists member_info.avatar
+ALTER TABLE `member_info` ADD COLUMN `avatar` VARCHAR(255) COMMENT '头像URL';
+
+-- 管理员维护的会员卡类型（名称、价格、有效天数）与会员持有的会员卡共用 membership_card 表，
+-- 会员卡类型没有持有人和卡号，因此这些列改为可空
+-- @skip-if-column-exists membership_card.name
+ALTER TABLE `membership_card` ADD COLUMN `name` VARCHAR(50) COMMENT '会员卡类型名称';
+-- @skip-if-column-exists membership_card.price
+ALTER TABLE `membership_card` ADD COLUMN `price` DECIMAL(10,2) COMMENT '价格';
+-- @skip-if-column-exists membership_card.validity_days
+ALTER TABLE `membership_card` ADD COLUMN `validity_days` INT COMMENT '有效天数';
+-- @skip-if-column-exists membership_card.description
+ALTER TABLE `membership_card` ADD COLUMN `description` VARCHAR(500) COMMENT '描述';
+-- @skip-if-column-exists membership_card.create_time
+ALTER TABLE `membership_card` ADD COLUMN `create_time` DATETIME COMMENT '创建时间';
+-- @skip-if-column-exists membership_card.update_time
+ALTER TABLE `membership_card` ADD COLUMN `update_time` DATETIME COMMENT '更新时间';
+-- @skip-if-column-nullable membership_card.user_id
+ALTER TABLE `membership_card` MODIFY COLUMN `user_id` BIGINT NULL COMMENT '用户ID（关联user表）';
+-- @skip-if-column-nullable membership_card.card_number
+ALTER TABLE `membership_card` MODIFY COLUMN `card_number` VARCHAR(50) NULL COMMENT '卡号';
+-- @skip-if-column-nullable membership_card.card_type
+ALTER TABLE `membership_card` MODIFY COLUMN `card_type` VARCHAR(50) NULL COMMENT '卡类型：年卡、月卡、次卡等';
+-- @skip-if-column-nullable membership_card.start_date
+ALTER TABLE `membership_card` MODIFY COLUMN `start_date` DATE NULL COMMENT '开始日期';
+-- @skip-if-column-nullable membership_card.end_date
+ALTER TABLE `membership_card` MODIFY COLUMN `end_date` DATE NULL COMMENT '结束日期';
@@ -0,0 +1,15 @@
+-- 课程候补名单
+-- 课程满员时会员加入候补，有会员取消预约时在同一事务中为队首的候补会员创建预约
+
+CREATE TABLE IF NOT EXISTS `course_waitlist` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '候补ID，同一课程按ID先后排队',
+  `course_id` BIGINT NOT NULL COMMENT '课程ID（关联course表）',
+  `user_id` BIGINT NOT NULL COMMENT '会员ID（关联user表）',
+  `created_at` DATETIME NOT NULL COMMENT '加入候补时间',
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `idx_waitlist_course_user` (`course_id`, `user_id`),
+  INDEX `idx_waitlist_course_id` (`course_id`, `id`),
+  INDEX `idx_waitlist_user_id` (`user_id`),
+  CONSTRAINT `fk_waitlist_course` FOREIGN KEY (`course_id`) REFERENCES `course` (`id`) ON DELETE CASCADE ON UPDATE CASCADE,
+  CONSTRAINT `fk_waitlist_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='课程候补名单表';
@@ -0,0 +1,2 @@
+-- 会员列表按姓名前缀搜索使用的索引，按手机号前缀搜索使用 user 表的唯一索引 idx_phone
+ALTER TABLE `member_info` ADD INDEX `idx_name` (`name`);
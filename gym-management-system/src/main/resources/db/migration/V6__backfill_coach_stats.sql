@@ -0,0 +1,24 @@
+-- V1 创建教练统计表时没有统计已有的预约，这里按预约表补齐
+-- 与 CoachStatsMapper 中重建统计的语句一致：覆盖已有统计行，再删除已没有预约的行，重复执行结果不变
+
+INSERT INTO `coach_daily_stats` (`trainer_id`, `stat_date`, `booking_count`)
+SELECT c.`trainer_id`, CAST(c.`schedule_time` AS DATE), COUNT(*)
+FROM `booking` b JOIN `course` c ON b.`course_id` = c.`id`
+GROUP BY c.`trainer_id`, CAST(c.`schedule_time` AS DATE)
+ON DUPLICATE KEY UPDATE `booking_count` = VALUES(`booking_count`);
+
+DELETE FROM `coach_daily_stats` WHERE NOT EXISTS (
+  SELECT 1 FROM `booking` b JOIN `course` c ON b.`course_id` = c.`id`
+  WHERE c.`trainer_id` = `coach_daily_stats`.`trainer_id` AND CAST(c.`schedule_time` AS DATE) = `coach_daily_stats`.`stat_date`
+);
+
+INSERT INTO `trainer_student` (`trainer_id`, `user_id`, `booking_count`)
+SELECT c.`trainer_id`, b.`user_id`, COUNT(*)
+FROM `booking` b JOIN `course` c ON b.`course_id` = c.`id`
+GROUP BY c.`trainer_id`, b.`user_id`
+ON DUPLICATE KEY UPDATE `booking_count` = VALUES(`booking_count`);
+
+DELETE FROM `trainer_student` WHERE NOT EXISTS (
+  SELECT 1 FROM `booking` b JOIN `course` c ON b.`course_id` = c.`id`
+  WHERE c.`trainer_id` = `trainer_student`.`trainer_id` AND b.`user_id` = `trainer_student`.`user_id`
+);
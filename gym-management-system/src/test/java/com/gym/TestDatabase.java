@@ -0,0 +1,118 @@
+package com.gym;
+
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 测试用的H2内存数据库（MySQL兼容模式）
+ * 用仓库根目录下的 gym_management_system_tables.sql 建表，迁移脚本由 SchemaMigrationRunner 执行
+ */
+public final class TestDatabase {
+
+    public static final String USERNAME = "sa";
+
+    public static final String PASSWORD = "";
+
+    private static final Path SCHEMA_PATH = Paths.get("../gym_management_system_tables.sql");
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE `(\\w+)`");
+
+    private static final Pattern INDEX_NAME = Pattern.compile("INDEX `(\\w+)`");
+
+    private static final Pattern TABLE_OPTIONS = Pattern.compile("\\)\\s*ENGINE=.*$", Pattern.DOTALL);
+
+    private TestDatabase() {
+    }
+
+    /**
+     * 获取指定名称的H2内存数据库地址
+     * 关闭随JVM退出自动关库，测试上下文关闭时座位库存还要把计数写回数据库
+     */
+    public static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    }
+
+    public static Connection connect(String url) throws SQLException {
+        return DriverManager.getConnection(url, USERNAME, PASSWORD);
+    }
+
+    /**
+     * 清空数据库后执行建表脚本
+     */
+    public static void createBaseline(String url) throws IOException, SQLException {
+        try (Connection connection = connect(url); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : readScript(SCHEMA_PATH)) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * 读取SQL脚本并转换为H2可以执行的语句
+     * 去掉建库语句和表选项，H2中索引名全库唯一，因此建表语句中的索引加上表名前缀
+     */
+    private static List<String> readScript(Path path) throws IOException {
+        String script = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        StringBuilder cleaned = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                cleaned.append(line).append('\n');
+            }
+        }
+        List<String> result = new ArrayList<>();
+        for (String sql : cleaned.toString().split(";")) {
+            String trimmed = sql.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("CREATE DATABASE") || trimmed.startsWith("USE ")) {
+                continue;
+            }
+            Matcher table = CREATE_TABLE.matcher(trimmed);
+            if (table.find()) {
+                trimmed = INDEX_NAME.matcher(trimmed).replaceAll("INDEX `" + table.group(1) + "_$1`");
+                trimmed = TABLE_OPTIONS.matcher(trimmed).replaceAll(")");
+            }
+            result.add(trimmed);
+        }
+        return result;
+    }
+
+    /**
+     * Spring容器启动前建表，配合 @ContextConfiguration(initializers = ...) 使用
+     * 每个容器使用单独的数据库，同一配置的容器在测试间复用，只会建表一次
+     */
+    public static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+        private static final AtomicInteger CONTEXTS = new AtomicInteger();
+
+        @Override
+        public void initialize(ConfigurableApplicationContext context) {
+            String url = url("gym_test_" + CONTEXTS.incrementAndGet());
+            try {
+                createBaseline(url);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("测试数据库建表失败", e);
+            }
+            TestPropertyValues.of("spring.datasource.url=" + url).applyTo(context);
+        }
+    }
+}
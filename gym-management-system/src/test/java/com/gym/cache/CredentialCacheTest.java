@@ -0,0 +1,46 @@
+package com.gym.cache;
+
+import com.gym.dto.UserCredential;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 登录凭证缓存测试
+ */
+class CredentialCacheTest {
+
+    @Test
+    void putAfterInvalidateDuringLoadIsSkipped() {
+        CredentialCache cache = new CredentialCache(100, 300);
+        long generation = cache.generation("13300000001");
+        // 加载期间密码被修改
+        cache.invalidate("13300000001");
+        cache.put(credential(1L, "13300000001"), generation);
+        assertNull(cache.get("13300000001"));
+
+        cache.put(credential(1L, "13300000001"), cache.generation("13300000001"));
+        assertNotNull(cache.get("13300000001"));
+    }
+
+    @Test
+    void putAfterInvalidateByIdDuringLoadIsSkipped() {
+        CredentialCache cache = new CredentialCache(100, 300);
+        long generation = cache.generation("13300000002");
+        // 按用户ID失效时不知道手机号，未缓存的凭证也不能在之后写入
+        cache.invalidateById(2L);
+        cache.put(credential(2L, "13300000002"), generation);
+        assertNull(cache.get("13300000002"));
+    }
+
+    private static UserCredential credential(Long id, String phone) {
+        UserCredential credential = new UserCredential();
+        credential.setId(id);
+        credential.setPhone(phone);
+        credential.setPassword("secret");
+        credential.setRole("member");
+        credential.setStatus("active");
+        return credential;
+    }
+}
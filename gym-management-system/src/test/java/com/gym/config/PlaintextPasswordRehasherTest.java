@@ -0,0 +1,44 @@
+package com.gym.config;
+
+import com.gym.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 明文密码加密任务测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestDatabase.Initializer.class)
+class PlaintextPasswordRehasherTest {
+
+    @Autowired
+    private PlaintextPasswordRehasher rehasher;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void plaintextPasswordsAreRehashedAndNoLongerAcceptedAsIs() {
+        jdbcTemplate.update("INSERT INTO `user` (phone, password, role, status) VALUES ('13200000001', 'old-secret', 'member', 'active')");
+        assertFalse(passwordEncoder.matches("old-secret", "old-secret"));
+
+        rehasher.run();
+
+        String stored = jdbcTemplate.queryForObject(
+                "SELECT password FROM `user` WHERE phone = '13200000001'", String.class);
+        assertTrue(stored.startsWith("$2"));
+        assertTrue(passwordEncoder.matches("old-secret", stored));
+    }
+}
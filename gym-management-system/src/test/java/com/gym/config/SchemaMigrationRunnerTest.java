@@ -0,0 +1,124 @@
+package com.gym.config;
+
+import com.gym.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据库迁移执行器测试
+ * 除新建数据库外，覆盖已有部署的情况：基线建表后手工补过列、或 V3 执行到一半失败（MySQL 的 DDL 无法回滚）
+ */
+class SchemaMigrationRunnerTest {
+
+    private static final String LOCATIONS = "classpath:db/migration/*.sql";
+
+    /**
+     * V3 加入条件指令前，新建数据库执行该脚本时记录的校验和
+     */
+    private static final String V3_CHECKSUM = "cf838f177febc9cb4eeaf5228131cd13b57fc5d45d3bf9849eb6bd3449080c11";
+
+    @Test
+    void migratesFreshDatabase() throws Exception {
+        DataSource dataSource = baseline("migration_fresh");
+        migrate(dataSource, LOCATIONS);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6),
+                jdbc.queryForList("SELECT version FROM schema_migration ORDER BY version", Integer.class));
+        assertEquals(V3_CHECKSUM, jdbc.queryForObject("SELECT checksum FROM schema_migration WHERE version = 3", String.class));
+        assertMigrated(jdbc);
+
+        // 再次启动不重复执行
+        migrate(dataSource, LOCATIONS);
+        assertEquals(6, jdbc.queryForObject("SELECT COUNT(*) FROM schema_migration", Integer.class));
+    }
+
+    @Test
+    void migratesDatabaseWithColumnsAddedByHand() throws Exception {
+        DataSource dataSource = baseline("migration_existing");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // 基线代码已经在使用这些列，已有部署都是手工补上的
+        jdbc.execute("ALTER TABLE `user` ADD COLUMN `name` VARCHAR(50)");
+        jdbc.execute("ALTER TABLE `member_info` ADD COLUMN `avatar` VARCHAR(255)");
+        jdbc.execute("ALTER TABLE `membership_card` ADD COLUMN `name` VARCHAR(50)");
+        jdbc.execute("ALTER TABLE `membership_card` ADD COLUMN `price` DECIMAL(10,2)");
+        jdbc.execute("ALTER TABLE `membership_card` ADD COLUMN `validity_days` INT");
+
+        migrate(dataSource, LOCATIONS);
+
+        assertEquals(6, jdbc.queryForObject("SELECT COUNT(*) FROM schema_migration", Integer.class));
+        assertMigrated(jdbc);
+    }
+
+    @Test
+    void resumesPartiallyAppliedScript() throws Exception {
+        DataSource dataSource = baseline("migration_partial");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // V3 在 MySQL 上中途失败时，之前的 DDL 已提交，但脚本没有被记录
+        jdbc.execute("ALTER TABLE `user` ADD COLUMN `name` VARCHAR(50) COMMENT '姓名' AFTER `phone`");
+        jdbc.execute("ALTER TABLE `member_info` ADD COLUMN `avatar` VARCHAR(255) COMMENT '头像URL'");
+        jdbc.execute("ALTER TABLE `membership_card` ADD COLUMN `name` VARCHAR(50) COMMENT '会员卡类型名称'");
+        jdbc.execute("ALTER TABLE `membership_card` MODIFY COLUMN `user_id` BIGINT NULL COMMENT '用户ID（关联user表）'");
+
+        migrate(dataSource, LOCATIONS);
+
+        assertEquals(6, jdbc.queryForObject("SELECT COUNT(*) FROM schema_migration", Integer.class));
+        assertMigrated(jdbc);
+    }
+
+    @Test
+    void backfillsCoachStatsFromExistingBookings() throws Exception {
+        DataSource dataSource = baseline("migration_coach_stats");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // 统计表上线前已有的预约
+        jdbc.update("INSERT INTO `user` (id, phone, password, role, status) VALUES (100, '13100000001', 'x', 'member', 'active')");
+        jdbc.update("INSERT INTO course (id, name, schedule_time, trainer_id, max_capacity, current_count) " +
+                "VALUES (100, '统计补齐课程', '2030-01-01 10:00:00', 2, 10, 1)");
+        jdbc.update("INSERT INTO booking (user_id, course_id, booking_time) VALUES (100, 100, '2029-12-01 10:00:00')");
+
+        migrate(dataSource, LOCATIONS);
+
+        assertEquals(1, jdbc.queryForObject("SELECT booking_count FROM coach_daily_stats " +
+                "WHERE trainer_id = 2 AND stat_date = '2030-01-01'", Integer.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM trainer_student " +
+                "WHERE trainer_id = 2 AND user_id = 100", Integer.class));
+    }
+
+    @Test
+    void rejectsUnknownDirective() throws Exception {
+        DataSource dataSource = baseline("migration_invalid");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> migrate(dataSource, "classpath:db/migration-invalid/*.sql"));
+        assertTrue(e.getMessage().contains("skip-if-table-exists"), e.getMessage());
+    }
+
+    private static DataSource baseline(String name) throws Exception {
+        String url = TestDatabase.url(name);
+        TestDatabase.createBaseline(url);
+        return new DriverManagerDataSource(url, TestDatabase.USERNAME, TestDatabase.PASSWORD);
+    }
+
+    private static void migrate(DataSource dataSource, String locations) throws Exception {
+        new SchemaMigrationRunner(dataSource, true, locations, 60).afterPropertiesSet();
+    }
+
+    /**
+     * 检查 V3 补齐的列和放宽的约束
+     */
+    private static void assertMigrated(JdbcTemplate jdbc) {
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_NAME = 'membership_card' AND COLUMN_NAME = 'description'", Integer.class));
+        assertEquals("YES", jdbc.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_NAME = 'membership_card' AND COLUMN_NAME = 'user_id'", String.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_NAME = 'course_waitlist'", Integer.class));
+    }
+}
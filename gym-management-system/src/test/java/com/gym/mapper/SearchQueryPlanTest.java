@@ -0,0 +1,133 @@
+package com.gym.mapper;
+
+import com.gym.TestDatabase;
+import com.gym.utils.SqlLikeUtils;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 搜索语句的执行计划测试
+ * 取MyBatis实际生成的SQL在H2（MySQL兼容模式）上执行 EXPLAIN，确认筛选条件走索引而不是全表扫描。
+ * H2 的代价模型总是优先 user.idx_role 上的等值条件（MySQL 按统计信息会放弃这个低区分度索引），
+ * 因此会员搜索用 USE INDEX 指定目标索引，断言条件能转换为索引范围；包含匹配（'%关键词%'）在这里会退化为全表扫描
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestDatabase.Initializer.class)
+class SearchQueryPlanTest {
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void memberSearchByPhoneUsesPhoneIndex() throws SQLException {
+        Map<String, Object> params = memberSearchParams();
+        params.put("phonePattern", SqlLikeUtils.prefixPattern("138"));
+        String index = indexOn("user", "phone");
+        String plan = explain("com.gym.mapper.UserMapper.searchMembersPage", params,
+                "FROM user u", "FROM user u USE INDEX (\"" + index + "\")");
+        assertFalse(plan.contains(".tableScan"), plan);
+        assertTrue(plan.contains(index + ": phone >= '138'"), plan);
+    }
+
+    @Test
+    void memberSearchByNameUsesNameIndex() throws SQLException {
+        Map<String, Object> params = memberSearchParams();
+        params.put("namePattern", SqlLikeUtils.prefixPattern("张"));
+        String plan = explain("com.gym.mapper.UserMapper.searchMembersPage", params,
+                "JOIN member_info mi", "JOIN member_info mi USE INDEX (idx_name)");
+        assertFalse(plan.contains(".tableScan"), plan);
+        assertTrue(plan.contains("idx_name: name >= "), plan);
+        plan = explain("com.gym.mapper.UserMapper.countSearchMembers", params,
+                "JOIN member_info mi", "JOIN member_info mi USE INDEX (idx_name)");
+        assertFalse(plan.contains(".tableScan"), plan);
+        assertTrue(plan.contains("idx_name: name >= "), plan);
+    }
+
+    @Test
+    void trainerBookingSearchUsesTrainerIndex() throws SQLException {
+        // 关键词按包含匹配，扫描范围仍由教练的课程决定
+        Map<String, Object> params = new HashMap<>();
+        params.put("trainerId", 2L);
+        params.put("keywordPattern", SqlLikeUtils.containsPattern("8000"));
+        params.put("offset", 0);
+        params.put("limit", 20);
+        String plan = explain("com.gym.mapper.BookingMapper.selectTrainerBookings", params, null, null);
+        assertFalse(plan.contains(".tableScan"), plan);
+        assertTrue(plan.contains("course_idx_trainer"), plan);
+    }
+
+    private Map<String, Object> memberSearchParams() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("after", null);
+        params.put("limit", 21);
+        return params;
+    }
+
+    /**
+     * 查询单列索引的名称，建表语句中的唯一索引在H2中会被重新命名
+     */
+    private String indexOn(String table, String column) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE TABLE_NAME = ? AND COLUMN_NAME = ?")) {
+            statement.setString(1, table);
+            statement.setString(2, column);
+            try (ResultSet rs = statement.executeQuery()) {
+                assertTrue(rs.next(), table + "." + column + " 上没有索引");
+                return rs.getString(1);
+            }
+        }
+    }
+
+    /**
+     * 执行映射语句对应的 EXPLAIN，返回执行计划文本
+     * @param table 需要指定索引的表在SQL中的写法，为null时使用H2自己选择的执行计划
+     * @param hinted 加上索引提示后的写法
+     */
+    private String explain(String statementId, Map<String, Object> params, String table, String hinted) throws SQLException {
+        BoundSql boundSql = sqlSessionFactory.getConfiguration().getMappedStatement(statementId).getBoundSql(params);
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        String sql = boundSql.getSql();
+        if (table != null) {
+            assertTrue(sql.contains(table), sql);
+            sql = sql.replace(table, hinted);
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < mappings.size(); i++) {
+                String property = mappings.get(i).getProperty();
+                statement.setObject(i + 1, boundSql.hasAdditionalParameter(property)
+                        ? boundSql.getAdditionalParameter(property) : params.get(property));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
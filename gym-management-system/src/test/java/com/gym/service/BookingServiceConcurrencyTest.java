@@ -0,0 +1,129 @@
+package com.gym.service;
+
+import com.gym.TestDatabase;
+import com.gym.cache.SeatInventory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 并发预约测试
+ * 500个会员同时预约同一门课程，验证不会超卖
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestDatabase.Initializer.class)
+class BookingServiceConcurrencyTest {
+
+    private static final int BOOKERS = 500;
+
+    private static final int CAPACITY = 50;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentBookingsNeverExceedCapacity() throws Exception {
+        long courseId = insertCourse(CAPACITY);
+        List<Long> members = insertMembers(BOOKERS, "136");
+
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Long userId : members) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.bookCourse(userId, courseId);
+                        booked.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        if ("课程已满，无法预约".equals(e.getMessage())) {
+                            full.incrementAndGet();
+                        } else {
+                            unexpected.add(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(unexpected.isEmpty(), () -> "预约出现意外异常: " + unexpected.peek());
+        assertEquals(CAPACITY, booked.get());
+        assertEquals(BOOKERS - CAPACITY, full.get());
+        assertEquals(CAPACITY, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM booking WHERE course_id = ?", Integer.class, courseId));
+
+        seatInventory.flush();
+        assertEquals(CAPACITY, jdbcTemplate.queryForObject(
+                "SELECT current_count FROM course WHERE id = ?", Integer.class, courseId));
+    }
+
+    private long insertCourse(int capacity) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO course (name, schedule_time, trainer_id, max_capacity, current_count) VALUES (?, ?, 2, ?, 0)",
+                    new String[]{"id"});
+            ps.setString(1, "并发测试课程");
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now().plusDays(1)));
+            ps.setInt(3, capacity);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private List<Long> insertMembers(int count, String phonePrefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String phone = String.format("%s%08d", phonePrefix, i);
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO `user` (phone, password, role, status) VALUES (?, 'test', 'member', 'active')",
+                        new String[]{"id"});
+                ps.setString(1, phone);
+                return ps;
+            }, keyHolder);
+            ids.add(keyHolder.getKey().longValue());
+        }
+        return ids;
+    }
+}
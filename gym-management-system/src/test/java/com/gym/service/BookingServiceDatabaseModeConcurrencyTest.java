@@ -0,0 +1,11 @@
+package com.gym.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 数据库模式（多实例部署）的并发预约测试
+ * 名额由 course 行的条件更新控制，用例与内存模式相同
+ */
+@SpringBootTest(properties = "gym.seat-inventory.mode=database")
+class BookingServiceDatabaseModeConcurrencyTest extends BookingServiceConcurrencyTest {
+}
@@ -0,0 +1,128 @@
+package com.gym.service;
+
+import com.gym.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 课程候补测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestDatabase.Initializer.class)
+class BookingWaitlistTest {
+
+    private static final AtomicLong PHONES = new AtomicLong(13500000000L);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cancellationPromotesWaitlistHead() {
+        long courseId = insertCourse(1);
+        long booked = insertMember();
+        long first = insertMember();
+        long second = insertMember();
+        bookingService.bookCourse(booked, courseId);
+
+        assertEquals(1, bookingService.joinWaitlist(first, courseId));
+        assertEquals(2, bookingService.joinWaitlist(second, courseId));
+
+        bookingService.cancelBooking(bookingId(booked, courseId));
+
+        assertTrue(bookingService.getBookedCourseIds(first).contains(courseId));
+        assertFalse(bookingService.getWaitlistedCourseIds(first).contains(courseId));
+        assertTrue(bookingService.getWaitlistedCourseIds(second).contains(courseId));
+    }
+
+    @Test
+    void sweepPromotesWaitlistAfterCapacityIncrease() {
+        long courseId = insertCourse(1);
+        long booked = insertMember();
+        long waiting = insertMember();
+        bookingService.bookCourse(booked, courseId);
+        assertEquals(1, bookingService.joinWaitlist(waiting, courseId));
+
+        LocalDateTime scheduleTime = jdbcTemplate.queryForObject(
+                "SELECT schedule_time FROM course WHERE id = ?", Timestamp.class, courseId).toLocalDateTime();
+        courseService.updateCourse(courseId, "候补测试课程", scheduleTime, 2L, 2);
+        bookingService.promoteWaitlists();
+
+        assertTrue(bookingService.getBookedCourseIds(waiting).contains(courseId));
+        assertFalse(bookingService.getWaitlistedCourseIds(waiting).contains(courseId));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM booking WHERE course_id = ?", Integer.class, courseId));
+    }
+
+    @Test
+    void waitlistRejectsMissingAndPastCourses() {
+        long member = insertMember();
+        RuntimeException missing = assertThrows(RuntimeException.class,
+                () -> bookingService.joinWaitlist(member, -1L));
+        assertEquals("课程不存在", missing.getMessage());
+
+        long pastCourse = insertCourse(1, LocalDateTime.now().minusDays(1));
+        RuntimeException past = assertThrows(RuntimeException.class,
+                () -> bookingService.joinWaitlist(member, pastCourse));
+        assertEquals("课程已开始，无法候补", past.getMessage());
+        assertFalse(bookingService.getWaitlistedCourseIds(member).contains(pastCourse));
+    }
+
+    private long bookingId(long userId, long courseId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM booking WHERE user_id = ? AND course_id = ?",
+                Long.class, userId, courseId);
+    }
+
+    private long insertCourse(int capacity) {
+        return insertCourse(capacity, LocalDateTime.now().plusDays(1));
+    }
+
+    private long insertCourse(int capacity, LocalDateTime scheduleTime) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO course (name, schedule_time, trainer_id, max_capacity, current_count) VALUES (?, ?, 2, ?, 0)",
+                    new String[]{"id"});
+            ps.setString(1, "候补测试课程");
+            ps.setTimestamp(2, Timestamp.valueOf(scheduleTime.withNano(0)));
+            ps.setInt(3, capacity);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private long insertMember() {
+        String phone = String.valueOf(PHONES.incrementAndGet());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO `user` (phone, password, role, status) VALUES (?, 'test', 'member', 'active')",
+                    new String[]{"id"});
+            ps.setString(1, phone);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
@@ -0,0 +1,86 @@
+package com.gym.service;
+
+import com.gym.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 教练统计服务测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestDatabase.Initializer.class)
+class CoachStatsServiceTest {
+
+    @Autowired
+    private CoachStatsService coachStatsService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuildOverwritesDriftedCountsAndRemovesStaleRows() {
+        LocalDateTime scheduleTime = LocalDateTime.now().plusDays(2).withNano(0);
+        long courseId = insertCourse(scheduleTime);
+        long member = insertMember("13700000001");
+        long formerMember = insertMember("13700000002");
+        bookingService.bookCourse(member, courseId);
+
+        // 手工改动造成的偏差：计数不对、学员已没有预约
+        jdbcTemplate.update("UPDATE coach_daily_stats SET booking_count = 99 WHERE trainer_id = 3");
+        jdbcTemplate.update("INSERT INTO trainer_student (trainer_id, user_id, booking_count) VALUES (3, ?, 1)", formerMember);
+        jdbcTemplate.update("INSERT INTO coach_daily_stats (trainer_id, stat_date, booking_count) VALUES (3, ?, 5)",
+                scheduleTime.toLocalDate().plusDays(1));
+
+        coachStatsService.rebuildAll();
+
+        assertEquals(1, coachStatsService.countBookings(3L, scheduleTime.toLocalDate()));
+        assertEquals(0, coachStatsService.countBookings(3L, scheduleTime.toLocalDate().plusDays(1)));
+        assertEquals(1, coachStatsService.countStudents(3L));
+
+        // 重建后增量更新照常生效
+        bookingService.bookCourse(formerMember, courseId);
+        assertEquals(2, coachStatsService.countBookings(3L, scheduleTime.toLocalDate()));
+        assertEquals(2, coachStatsService.countStudents(3L));
+    }
+
+    private long insertCourse(LocalDateTime scheduleTime) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO course (name, schedule_time, trainer_id, max_capacity, current_count) VALUES (?, ?, 3, 10, 0)",
+                    new String[]{"id"});
+            ps.setString(1, "统计重建测试课程");
+            ps.setTimestamp(2, Timestamp.valueOf(scheduleTime));
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private long insertMember(String phone) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO `user` (phone, password, role, status) VALUES (?, 'test', 'member', 'active')",
+                    new String[]{"id"});
+            ps.setString(1, phone);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
@@ -0,0 +1,120 @@
+package com.gym.service;
+
+import com.gym.TestDatabase;
+import com.gym.cache.CredentialCache;
+import com.gym.cache.SeatInventory;
+import com.gym.entity.User;
+import com.gym.security.GymUserDetails;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用户服务测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestDatabase.Initializer.class)
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletingMemberReleasesBookedSeats() {
+        long courseId = insertCourse();
+        long member = insertMember("13400000001");
+        bookingService.bookCourse(member, courseId);
+        assertTrue(seatInventory.isFull(courseId));
+
+        userService.deleteMember(member);
+
+        assertFalse(seatInventory.isFull(courseId));
+        seatInventory.flush();
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT current_count FROM course WHERE id = ?", Integer.class, courseId));
+        bookingService.bookCourse(insertMember("13400000002"), courseId);
+    }
+
+    @Test
+    void loginPrincipalCarriesDisplayName() {
+        long member = insertMember("13400000003");
+        assertNull(((GymUserDetails) userService.loadUserByPhone("13400000003")).getName());
+
+        jdbcTemplate.update("INSERT INTO member_info (user_id, name, phone) VALUES (?, '赵会员', '13400000003')", member);
+        // 直接写库不会失效凭证缓存，这里模拟资料保存后的失效
+        credentialCache.invalidateById(member);
+        GymUserDetails details = (GymUserDetails) userService.loadUserByPhone("13400000003");
+        assertEquals("赵会员", details.getName());
+        assertEquals("赵会员", details.toUser().getName());
+
+        assertEquals("王教练", ((GymUserDetails) userService.loadUserByPhone("13900139000")).getName());
+    }
+
+    @Test
+    void memberSearchMatchesPhoneSuffix() {
+        long member = insertMember("13400005678");
+        Map<String, Object> params = new HashMap<>();
+        params.put("phoneSuffix", "5678");
+        List<User> members = userService.searchMembersPage(params, null, 20, true).getItems();
+        assertEquals(1, members.size());
+        assertEquals(member, members.get(0).getId());
+
+        params.put("phoneSuffix", "1340");
+        assertTrue(userService.searchMembersPage(params, null, 20, true).getItems().isEmpty());
+    }
+
+    private long insertCourse() {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO course (name, schedule_time, trainer_id, max_capacity, current_count) VALUES (?, ?, 2, 1, 0)",
+                    new String[]{"id"});
+            ps.setString(1, "删除会员测试课程");
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now().plusDays(1)));
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private long insertMember(String phone) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO `user` (phone, password, role, status) VALUES (?, 'test', 'member', 'active')",
+                    new String[]{"id"});
+            ps.setString(1, phone);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
@@ -0,0 +1,67 @@
+package com.gym.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 头像存储服务测试
+ * 缩略图缺失（线程池繁忙、生成失败或重启前未完成）时，访问回退到原图并重新生成缩略图
+ */
+class AvatarStorageServiceImplTest {
+
+    private static final String HASH = String.format("%064x", 42);
+
+    @TempDir
+    Path root;
+
+    private AvatarStorageServiceImpl storageService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storageService = new AvatarStorageServiceImpl(root.toString(), 32, 16, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdown();
+    }
+
+    @Test
+    void regeneratesMissingThumbnailsOnFallback() throws Exception {
+        Path original = root.resolve(HASH + ".png");
+        ImageIO.write(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+
+        assertEquals(original, storageService.resolve(HASH + "_profile.jpg"));
+
+        Path profile = root.resolve(HASH + "_profile.jpg");
+        Path list = root.resolve(HASH + "_list.jpg");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!(Files.exists(profile) && Files.exists(list)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.exists(profile) && Files.exists(list), "缩略图没有重新生成");
+        assertEquals(profile, storageService.resolve(HASH + "_profile.jpg"));
+    }
+
+    @Test
+    void keepsServingOriginalWhenImageCannotBeDecoded() throws Exception {
+        Path original = root.resolve(HASH + ".png");
+        Files.write(original, new byte[]{1, 2, 3});
+
+        assertEquals(original, storageService.resolve(HASH + "_list.jpg"));
+        Thread.sleep(200);
+        assertEquals(original, storageService.resolve(HASH + "_list.jpg"));
+        assertFalse(Files.exists(root.resolve(HASH + "_list.jpg")));
+    }
+}
@@ -0,0 +1,3 @@
+-- 无法识别的条件指令，迁移执行器应拒绝执行
+-- @skip-if-table-exists course_tag
+CREATE TABLE course_tag (id BIGINT PRIMARY KEY);